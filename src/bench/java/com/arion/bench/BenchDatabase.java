@@ -0,0 +1,186 @@
+package com.arion.bench;
+
+import com.arion.Config.Database;
+import com.arion.Config.SchemaMigrator;
+import com.arion.Model.TransactionRollup;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.YearMonth;
+
+// Base de datos de los benchmarks: un PostgreSQL embebido por JVM (o uno local con
+// -Darion.bench.url / arion.bench.user / arion.bench.password) con datos sintéticos.
+// La aplicación se conecta a ella a través de las propiedades de sistema db.*.
+public final class BenchDatabase {
+
+    private static final String[] CATEGORIES = {
+        "Comida", "Transporte", "Hogar", "Entretenimiento", "Salud", "Utiles", "Otros"
+    };
+
+    // Datos sintéticos reproducibles: setseed fija la secuencia de random() en la sesión.
+    // El tercer parámetro son los ids de CATEGORIES, en el mismo orden.
+    private static final String GENERATE_SQL =
+        "INSERT INTO transactions (user_id, description, category_id, date, amount, type, note) " +
+        "SELECT ?, " +
+        "(ARRAY['Supermercado','Gasolina','Alquiler','Cine','Farmacia','Salario','Restaurante','Libros'])[1 + floor(random() * 8)::int] || ' ' || g, " +
+        "(?::int[])[1 + floor(random() * 7)::int], " +
+        "CURRENT_DATE - floor(random() * 1095)::int, " +
+        "round((1 + random() * 499)::numeric, 2), " +
+        "CASE WHEN random() < 0.15 THEN 'INCOME' ELSE 'EXPENSE' END, " +
+        "CASE WHEN random() < 0.3 THEN 'nota ' || g ELSE '' END " +
+        "FROM generate_series(1, ?) AS g";
+
+    private static EmbeddedPostgres postgres;
+    private static String url;
+    private static String user;
+    private static String password;
+
+    private BenchDatabase() {}
+
+    public static synchronized void start() throws Exception {
+        if (url != null) {
+            return;
+        }
+
+        if (System.getProperty("arion.bench.url") != null) {
+            url = System.getProperty("arion.bench.url");
+            user = System.getProperty("arion.bench.user", "postgres");
+            password = System.getProperty("arion.bench.password", "");
+        } else {
+            postgres = EmbeddedPostgres.builder().start();
+            url = postgres.getJdbcUrl("postgres", "postgres");
+            user = "postgres";
+            password = "postgres";
+        }
+
+        System.setProperty("db.url", url);
+        System.setProperty("db.user", user);
+        System.setProperty("db.password", password);
+        System.setProperty("db.pool.minSize", "1");
+        System.setProperty("db.pool.maxSize", "4");
+
+        // Mismo esquema que la aplicación
+        SchemaMigrator.migrate();
+    }
+
+    // Crea (o reutiliza) un usuario con 'rows' transacciones y presupuestos para el mes actual
+    public static synchronized int seed(int rows) throws Exception {
+        start();
+        String username = "bench_" + rows;
+
+        try (Connection conn = connect()) {
+            int userId = findUser(conn, username);
+            if (userId > 0 && countTransactions(conn, userId) == rows) {
+                return userId;
+            }
+
+            conn.setAutoCommit(false);
+            if (userId > 0) {
+                try (PreparedStatement delete = conn.prepareStatement("DELETE FROM users WHERE id = ?")) {
+                    delete.setInt(1, userId);
+                    delete.executeUpdate();
+                }
+            }
+
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO users (username, password, email) VALUES (?, ?, ?) RETURNING id")) {
+                insert.setString(1, username);
+                insert.setString(2, "bench");
+                insert.setString(3, username + "@bench.local");
+                try (ResultSet rs = insert.executeQuery()) {
+                    rs.next();
+                    userId = rs.getInt(1);
+                }
+            }
+
+            Integer[] categoryIds = new Integer[CATEGORIES.length];
+            try (PreparedStatement category = conn.prepareStatement(
+                    "INSERT INTO categories (user_id, name) VALUES (?, ?) RETURNING id")) {
+                for (int i = 0; i < CATEGORIES.length; i++) {
+                    category.setInt(1, userId);
+                    category.setString(2, CATEGORIES[i]);
+                    try (ResultSet rs = category.executeQuery()) {
+                        rs.next();
+                        categoryIds[i] = rs.getInt(1);
+                    }
+                }
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SELECT setseed(0.42)");
+            }
+            try (PreparedStatement generate = conn.prepareStatement(GENERATE_SQL)) {
+                generate.setInt(1, userId);
+                generate.setArray(2, conn.createArrayOf("integer", categoryIds));
+                generate.setInt(3, rows);
+                generate.executeUpdate();
+            }
+
+            try (PreparedStatement budget = conn.prepareStatement(
+                    "INSERT INTO budgets (user_id, category_id, limit_amount, period_year_month) VALUES (?, ?, ?, ?)")) {
+                for (int i = 0; i < CATEGORIES.length; i++) {
+                    budget.setInt(1, userId);
+                    budget.setInt(2, categoryIds[i]);
+                    budget.setBigDecimal(3, new java.math.BigDecimal(200 + i * 150));
+                    budget.setDate(4, java.sql.Date.valueOf(YearMonth.now().atDay(1)));
+                    budget.addBatch();
+                }
+                budget.executeBatch();
+            }
+            conn.commit();
+
+            try (Statement stmt = conn.createStatement()) {
+                conn.setAutoCommit(true);
+                stmt.execute("ANALYZE transactions");
+            }
+        }
+
+        if (!TransactionRollup.rebuild(findUserId(username))) {
+            throw new IllegalStateException("No se pudo reconstruir el resumen mensual de " + username);
+        }
+        return findUserId(username);
+    }
+
+    public static synchronized void stop() throws Exception {
+        Database.shutdown();
+        if (postgres != null) {
+            postgres.close();
+            postgres = null;
+        }
+        url = null;
+    }
+
+    private static int findUserId(String username) throws Exception {
+        try (Connection conn = connect()) {
+            return findUser(conn, username);
+        }
+    }
+
+    private static int findUser(Connection conn, String username) throws Exception {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM users WHERE username = ?")) {
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private static int countTransactions(Connection conn, int userId) throws Exception {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM transactions WHERE user_id = ?")) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    // Conexión directa (fuera del pool de la aplicación) para preparar los datos
+    private static Connection connect() throws Exception {
+        return DriverManager.getConnection(url, user, password);
+    }
+}
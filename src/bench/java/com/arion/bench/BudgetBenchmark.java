@@ -0,0 +1,46 @@
+package com.arion.bench;
+
+import com.arion.Model.Budget;
+import com.arion.Model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Presupuestos excedidos y gasto por presupuesto de la pantalla de presupuestos
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BudgetBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    private int userId;
+    private List<Budget> budgets;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        userId = BenchDatabase.seed(rows);
+        budgets = Budget.getAllActive(userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchDatabase.stop();
+    }
+
+    @Benchmark
+    public List<Budget> getExceededBudgets() {
+        return Budget.getExceededBudgets(userId);
+    }
+
+    @Benchmark
+    public Map<Integer, Money> spentByBudget() {
+        return Budget.spentByBudget(userId, budgets);
+    }
+}
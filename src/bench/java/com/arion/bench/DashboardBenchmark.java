@@ -0,0 +1,70 @@
+package com.arion.bench;
+
+import com.arion.Model.DashboardSnapshot;
+import com.arion.Model.Money;
+import com.arion.Model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Datos del dashboard: gastos por categoría desde el resumen mensual, desde la copia por
+// columnas y agrupando objetos Transaction en memoria, y la consulta única del dashboard
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    private int userId;
+    private TransactionSnapshot snapshot;
+    private List<Transaction> transactions;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        userId = BenchDatabase.seed(rows);
+        snapshot = TransactionSnapshot.load(userId);
+        transactions = Transaction.getAll(userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchDatabase.stop();
+    }
+
+    @Benchmark
+    public Map<String, Money> pieChartFromRollup() {
+        return Transaction.getExpensesByCategory(userId);
+    }
+
+    @Benchmark
+    public Map<String, Money> pieChartFromSnapshot() {
+        return snapshot.totalsByCategory(Transaction.TransactionType.EXPENSE);
+    }
+
+    @Benchmark
+    public Map<String, Long> pieChartGroupingBy() {
+        return transactions.stream()
+                .filter(t -> t.getType() == Transaction.TransactionType.EXPENSE)
+                .collect(Collectors.groupingBy(Transaction::getCategory,
+                        Collectors.summingLong(t -> t.getAmount().cents())));
+    }
+
+    @Benchmark
+    public Money[] summaryTotals() {
+        return new Money[]{Transaction.getTotalIncome(userId), Transaction.getTotalExpenses(userId)};
+    }
+
+    // Lo que carga el dashboard: recientes, totales y gastos por categoría en una consulta
+    @Benchmark
+    public DashboardSnapshot dashboardSnapshot() {
+        return DashboardSnapshot.load(userId, 10);
+    }
+}
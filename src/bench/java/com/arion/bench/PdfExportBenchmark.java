@@ -0,0 +1,41 @@
+package com.arion.bench;
+
+import com.arion.Model.Transaction;
+import com.arion.Utils.TransactionPdfExporter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Generación del reporte PDF completo, escrito a un flujo descartado
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PdfExportBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private int userId;
+    private TransactionPdfExporter exporter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        userId = BenchDatabase.seed(rows);
+        exporter = new TransactionPdfExporter("bench", Transaction.getTotalIncome(userId),
+                Transaction.getTotalExpenses(userId));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchDatabase.stop();
+    }
+
+    @Benchmark
+    public long exportPdf() throws Exception {
+        return exporter.export(userId, rows, OutputStream.nullOutputStream(), (written, total) -> {}, () -> false);
+    }
+}
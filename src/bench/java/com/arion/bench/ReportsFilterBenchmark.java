@@ -0,0 +1,51 @@
+package com.arion.bench;
+
+import com.arion.Model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Filtro de la tabla de reportes: primera página con búsqueda por prefijo (menos de 3
+// caracteres) y por subcadena (índices de trigramas), y la página siguiente por cursor
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportsFilterBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"su", "merc", "nota 99"})
+    public String filter;
+
+    private int userId;
+    private Transaction.PageQuery query;
+    private Transaction lastOfFirstPage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        userId = BenchDatabase.seed(rows);
+        query = new Transaction.PageQuery(Transaction.SortField.DATE, false, filter);
+        List<Transaction> firstPage = Transaction.getPage(userId, query, null, 200);
+        lastOfFirstPage = firstPage.isEmpty() ? null : firstPage.get(firstPage.size() - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchDatabase.stop();
+    }
+
+    @Benchmark
+    public List<Transaction> filterFirstPage() {
+        return Transaction.getPage(userId, query, null, 200);
+    }
+
+    @Benchmark
+    public List<Transaction> filterNextPage() {
+        return Transaction.getPage(userId, query, lastOfFirstPage, 200);
+    }
+}
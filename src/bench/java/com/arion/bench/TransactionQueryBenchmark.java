@@ -0,0 +1,48 @@
+package com.arion.bench;
+
+import com.arion.Model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Costo de materializar las transacciones de un usuario: objetos Transaction completos,
+// la copia por columnas y la primera página de la tabla de reportes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionQueryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private int userId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        userId = BenchDatabase.seed(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchDatabase.stop();
+    }
+
+    @Benchmark
+    public List<Transaction> getAll() {
+        return Transaction.getAll(userId);
+    }
+
+    @Benchmark
+    public TransactionSnapshot snapshotLoad() throws Exception {
+        return TransactionSnapshot.load(userId);
+    }
+
+    @Benchmark
+    public List<Transaction> firstPage() {
+        return Transaction.getPage(userId, Transaction.PageQuery.newestFirst(), null, 200);
+    }
+}
@@ -0,0 +1,182 @@
+package com.arion.bench;
+
+import com.arion.Config.Database;
+import com.arion.Model.CategoryDictionary;
+import com.arion.Model.Money;
+import com.arion.Model.Transaction;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Copia de solo lectura de las transacciones de un usuario, guardada por columnas en arreglos
+// primitivos: fecha (días desde epoch), monto en centavos, categoría codificada con un
+// diccionario y tipo en un BitSet. Sirve para cálculos sobre muchas filas sin crear un objeto
+// Transaction (con sus properties de JavaFX) por fila. Las filas están ordenadas por fecha.
+// Solo la usan los benchmarks, como referencia frente al resumen mensual (transaction_monthly_rollup),
+// que es lo que consultan el dashboard, los presupuestos y los reportes.
+public final class TransactionSnapshot {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final String SELECT_BY_USER =
+        "SELECT date, amount, category_id, type FROM transactions WHERE user_id = ? ORDER BY date, id";
+
+    private final int size;
+    private final int[] epochDays;
+    private final long[] amountCents;
+    private final int[] categoryIds;
+    private final String[] categoryNames;
+    private final BitSet income;
+
+    private TransactionSnapshot(int size, int[] epochDays, long[] amountCents, int[] categoryIds,
+                                String[] categoryNames, BitSet income) {
+        this.size = size;
+        this.epochDays = epochDays;
+        this.amountCents = amountCents;
+        this.categoryIds = categoryIds;
+        this.categoryNames = categoryNames;
+        this.income = income;
+    }
+
+    // Lee solo las columnas necesarias, sin materializar objetos Transaction.
+    // Los errores se propagan: una copia a medias daría totales incorrectos.
+    public static TransactionSnapshot load(int userId) throws Exception {
+        int capacity = Math.max(16, Transaction.countByUser(userId));
+        int[] days = new int[capacity];
+        long[] cents = new long[capacity];
+        int[] categories = new int[capacity];
+        BitSet incomeRows = new BitSet(capacity);
+        // id de la tabla categories -> posición local en categoryNames
+        Map<Integer, Integer> dictionary = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        int count = 0;
+
+        try (Connection conn = Database.getConnection()) {
+            // Fuera del modo autocommit PostgreSQL trae el resultado por bloques de FETCH_SIZE filas
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_BY_USER)) {
+                stmt.setFetchSize(FETCH_SIZE);
+                stmt.setInt(1, userId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (count == days.length) {
+                            int grown = days.length + (days.length >> 1);
+                            days = Arrays.copyOf(days, grown);
+                            cents = Arrays.copyOf(cents, grown);
+                            categories = Arrays.copyOf(categories, grown);
+                        }
+
+                        days[count] = (int) rs.getDate(1).toLocalDate().toEpochDay();
+                        cents[count] = Money.of(rs.getBigDecimal(2)).cents();
+
+                        int categoryId = rs.getInt(3);
+                        Integer id = dictionary.get(categoryId);
+                        if (id == null) {
+                            id = names.size();
+                            dictionary.put(categoryId, id);
+                            names.add(CategoryDictionary.name(conn, userId, categoryId));
+                        }
+                        categories[count] = id;
+
+                        if (Transaction.TransactionType.INCOME.name().equals(rs.getString(4))) {
+                            incomeRows.set(count);
+                        }
+                        count++;
+                    }
+                }
+            }
+            conn.commit();
+        }
+
+        return new TransactionSnapshot(count, days, cents, categories, names.toArray(new String[0]), incomeRows);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Categorías presentes en la copia, en el orden en que aparecieron
+    public List<String> getCategories() {
+        return Collections.unmodifiableList(Arrays.asList(categoryNames));
+    }
+
+    // Total de un tipo de transacción
+    public Money total(Transaction.TransactionType type) {
+        boolean wantIncome = type == Transaction.TransactionType.INCOME;
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            if (income.get(i) == wantIncome) {
+                total += amountCents[i];
+            }
+        }
+        return Money.ofCents(total);
+    }
+
+    // Total de un tipo y categoría entre dos fechas (ambas incluidas)
+    public Money total(Transaction.TransactionType type, String category, LocalDate from, LocalDate to) {
+        int categoryId = Arrays.asList(categoryNames).indexOf(category);
+        if (categoryId < 0) {
+            return Money.ZERO;
+        }
+
+        boolean wantIncome = type == Transaction.TransactionType.INCOME;
+        int toDay = (int) to.toEpochDay();
+        long total = 0;
+        for (int i = firstIndexOnOrAfter((int) from.toEpochDay()); i < size && epochDays[i] <= toDay; i++) {
+            if (categoryIds[i] == categoryId && income.get(i) == wantIncome) {
+                total += amountCents[i];
+            }
+        }
+        return Money.ofCents(total);
+    }
+
+    // Totales por categoría para un tipo, ordenados de mayor a menor
+    public Map<String, Money> totalsByCategory(Transaction.TransactionType type) {
+        boolean wantIncome = type == Transaction.TransactionType.INCOME;
+        long[] totals = new long[categoryNames.length];
+        boolean[] present = new boolean[categoryNames.length];
+        for (int i = 0; i < size; i++) {
+            if (income.get(i) == wantIncome) {
+                totals[categoryIds[i]] += amountCents[i];
+                present[categoryIds[i]] = true;
+            }
+        }
+
+        Integer[] order = new Integer[categoryNames.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(totals[b], totals[a]));
+
+        Map<String, Money> result = new LinkedHashMap<>();
+        for (int id : order) {
+            if (present[id]) {
+                result.put(categoryNames[id], Money.ofCents(totals[id]));
+            }
+        }
+        return result;
+    }
+
+    // Búsqueda binaria sobre las fechas ordenadas
+    private int firstIndexOnOrAfter(int epochDay) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
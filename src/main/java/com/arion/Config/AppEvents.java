@@ -0,0 +1,162 @@
+package com.arion.Config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Eventos de Java Flight Recorder propios de la app. Con una sola grabación se ve el tiempo hasta
+// que cada pantalla queda lista (y qué fase lo domina), cada consulta de los modelos, las
+// exportaciones PDF y los intentos de inicio de sesión.
+// El perfil /jfr/arion.jfc (en los recursos) fija sus umbrales; se puede usar de dos formas:
+// -Darion.jfr=arion.jfr graba con el perfil default del JDK más el de la app y guarda el archivo
+// al salir, o -XX:StartFlightRecording:settings=default,settings=<ruta a arion.jfc>.
+public final class AppEvents {
+
+    private static final String SETTINGS = "/jfr/arion.jfc";
+
+    private static Recording recording;
+
+    private AppEvents() {}
+
+    @Name("com.arion.ScreenLoad")
+    @Label("Carga de pantalla")
+    @Category({"Arion", "UI"})
+    @Description("Desde que se empieza a leer el FXML hasta el primer pulso con los datos ya mostrados")
+    @StackTrace(false)
+    public static final class ScreenLoad extends Event {
+        @Label("Pantalla")
+        public String screen;
+
+        @Label("FXML")
+        @Timespan(Timespan.MILLISECONDS)
+        public long fxmlMillis;
+
+        @Label("Inicialización del controlador")
+        @Timespan(Timespan.MILLISECONDS)
+        public long initMillis;
+
+        @Label("Carga de datos")
+        @Timespan(Timespan.MILLISECONDS)
+        public long dataMillis;
+
+        @Label("Primer render")
+        @Timespan(Timespan.MILLISECONDS)
+        public long renderMillis;
+    }
+
+    @Name("com.arion.ModelQuery")
+    @Label("Consulta de modelo")
+    @Category({"Arion", "Datos"})
+    @StackTrace(false)
+    public static final class ModelQuery extends Event {
+        @Label("Consulta")
+        public String query;
+
+        @Label("Filas")
+        @Description("Tamaño del resultado si es una colección o un mapa; -1 si no")
+        public int rows;
+
+        @Label("Con error")
+        public boolean failed;
+    }
+
+    @Name("com.arion.PdfExport")
+    @Label("Exportación PDF")
+    @Category({"Arion", "Exportación"})
+    @StackTrace(false)
+    public static final class PdfExport extends Event {
+        @Label("Filas")
+        public long rows;
+
+        @Label("Bytes escritos")
+        @DataAmount
+        public long bytes;
+
+        @Label("Completada")
+        public boolean completed;
+    }
+
+    // Sin el usuario ni el correo: solo el resultado y el tipo de identificador
+    @Name("com.arion.AuthAttempt")
+    @Label("Intento de inicio de sesión")
+    @Category({"Arion", "Sesión"})
+    @StackTrace(false)
+    public static final class AuthAttempt extends Event {
+        @Label("Correcto")
+        public boolean success;
+
+        @Label("Con correo")
+        public boolean byEmail;
+    }
+
+    // Ejecuta una llamada de modelo dentro de un evento ModelQuery
+    public static <T> T modelQuery(String query, Supplier<T> call) {
+        ModelQuery event = new ModelQuery();
+        event.begin();
+        boolean failed = true;
+        T result = null;
+        try {
+            result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.query = query;
+                event.failed = failed;
+                event.rows = result instanceof Collection<?> rows ? rows.size()
+                        : result instanceof Map<?, ?> map ? map.size() : -1;
+                event.commit();
+            }
+        }
+    }
+
+    // Con -Darion.jfr=<archivo>, inicia una grabación con los perfiles default y de la app
+    public static synchronized void startRecordingIfRequested() {
+        String file = System.getProperty("arion.jfr");
+        if (file == null || file.isBlank() || recording != null) {
+            return;
+        }
+
+        try (Reader settings = new InputStreamReader(
+                AppEvents.class.getResourceAsStream(SETTINGS), StandardCharsets.UTF_8)) {
+            Map<String, String> merged = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            merged.putAll(Configuration.create(settings).getSettings());
+
+            Recording started = new Recording(merged);
+            started.setName("arion");
+            started.setToDisk(true);
+            started.setDestination(Path.of(file));
+            started.start();
+            recording = started;
+            System.out.println("Grabación JFR iniciada; se guardará en " + Path.of(file).toAbsolutePath());
+        } catch (Exception e) {
+            System.err.println("No se pudo iniciar la grabación JFR: " + e.getMessage());
+        }
+    }
+
+    // Detiene la grabación y la escribe en el archivo indicado
+    public static synchronized void stopRecording() {
+        if (recording != null) {
+            recording.stop();
+            recording.close();
+            recording = null;
+        }
+    }
+}
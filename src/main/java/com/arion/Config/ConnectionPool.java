@@ -0,0 +1,351 @@
+package com.arion.Config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pool acotado de conexiones JDBC: mantiene conexiones abiertas y las reutiliza
+// para no pagar el handshake TCP + autenticación de PostgreSQL en cada consulta
+public class ConnectionPool {
+
+    // Si la conexión se usó hace menos de esto, no se valida al prestarla
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+
+    private final String url;
+    private final Properties connectionProps;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long connectionTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final long leakDetectionMillis;
+    // Con -Darion.pool.leakTrace=true se guarda la pila de cada préstamo para el aviso de fuga;
+    // sin él, el aviso lleva solo la antigüedad y el hilo (armar la pila en cada préstamo es caro)
+    private final boolean leakTrace = Boolean.getBoolean("arion.pool.leakTrace");
+    private final int statementCacheSize;
+
+    // LIFO: la conexión devuelta más recientemente es la primera en reutilizarse
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(Properties props) {
+        this.url = props.getProperty("db.url");
+        this.connectionProps = new Properties();
+        this.connectionProps.setProperty("user", props.getProperty("db.user", ""));
+        this.connectionProps.setProperty("password", props.getProperty("db.password", ""));
+
+        this.maxSize = Math.max(1, intProperty(props, "db.pool.maxSize", 10));
+        this.minSize = Math.min(maxSize, Math.max(0, intProperty(props, "db.pool.minSize", 2)));
+        this.idleTimeoutMillis = longProperty(props, "db.pool.idleTimeoutMs", 600_000);
+        this.connectionTimeoutMillis = longProperty(props, "db.pool.connectionTimeoutMs", 30_000);
+        this.validationTimeoutSeconds = intProperty(props, "db.pool.validationTimeoutSec", 5);
+        this.leakDetectionMillis = longProperty(props, "db.pool.leakDetectionMs", 0);
+        this.statementCacheSize = Math.max(0, intProperty(props, "db.pool.statementCacheSize", 64));
+
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "arion-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1_000, Math.min(idleTimeoutMillis, 30_000));
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Abre las conexiones mínimas para que la primera consulta no pague el handshake
+    public void prewarm() throws SQLException {
+        fillToMinimum();
+    }
+
+    // Presta una conexión; al cerrarla vuelve al pool en lugar de cerrarse físicamente.
+    // El tiempo hasta tenerla (espera de un permiso, validación o apertura) va a QueryMetrics.
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = acquire();
+        QueryMetrics.recordConnectionWait(System.nanoTime() - start);
+        return connection;
+    }
+
+    private Connection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+
+        try {
+            if (!permits.tryAcquire(connectionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Tiempo de espera agotado al obtener una conexión del pool ("
+                        + connectionTimeoutMillis + " ms, máximo " + maxSize + " conexiones)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba una conexión", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return lend(pooled);
+                }
+                discard(pooled);
+            }
+            return lend(open());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Sentencia del registro: si la conexión es del pool se reutiliza la que ya está preparada
+    // en su conexión física; si no (o si la caché está desactivada), se prepara normalmente
+    static PreparedStatement prepare(Connection conn, SqlStatement sql) throws SQLException {
+        if (Proxy.isProxyClass(conn.getClass()) && Proxy.getInvocationHandler(conn) instanceof Handle handle) {
+            return handle.prepare(conn, sql);
+        }
+        return sql.prepare(conn);
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getActiveCount() {
+        return borrowed.size();
+    }
+
+    public int getTotalCount() {
+        return totalConnections.get();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+        for (PooledConnection active : borrowed) {
+            System.err.println("Conexión aún prestada al cerrar el pool; se cerrará de todas formas");
+            discard(active);
+        }
+        borrowed.clear();
+    }
+
+    private Connection lend(PooledConnection pooled) {
+        pooled.borrowedAt = System.currentTimeMillis();
+        pooled.leakReported = false;
+        pooled.borrowThread = Thread.currentThread().getName();
+        pooled.borrowSite = leakDetectionMillis > 0 && leakTrace ? new Exception("Conexión prestada aquí") : null;
+        borrowed.add(pooled);
+        return pooled.newHandle();
+    }
+
+    // Devuelve la conexión física al pool, dejando su estado como recién abierta
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        pooled.lastUsedAt = System.currentTimeMillis();
+        try {
+            if (closed || pooled.discarded.get() || pooled.physical.isClosed()) {
+                discard(pooled);
+            } else {
+                if (!pooled.physical.getAutoCommit()) {
+                    pooled.physical.rollback();
+                    pooled.physical.setAutoCommit(true);
+                }
+                pooled.physical.clearWarnings();
+                idle.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            System.err.println("Descartando conexión con estado inválido: " + e.getMessage());
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsedAt < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, connectionProps);
+        if (QueryMetrics.isEnabled()) {
+            physical = InstrumentedConnection.wrap(physical);
+        }
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    // Solo la primera llamada cuenta: close() descarta las prestadas y su handle puede volver después
+    private void discard(PooledConnection pooled) {
+        if (!pooled.discarded.compareAndSet(false, true)) {
+            return;
+        }
+        totalConnections.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar conexión del pool: " + e.getMessage());
+        }
+    }
+
+    // Cada apertura toma un permiso, como un préstamo, para no pasar de maxSize junto con los
+    // préstamos en curso. Sin permisos libres el pool está en uso y no hace falta reponer.
+    private void fillToMinimum() throws SQLException {
+        while (!closed && totalConnections.get() < minSize && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = open();
+                pooled.lastUsedAt = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    // Tarea periódica: desaloja conexiones ociosas, repone el mínimo y detecta fugas
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        for (PooledConnection pooled : idle) {
+            if (totalConnections.get() <= minSize) {
+                break;
+            }
+            if (now - pooled.lastUsedAt > idleTimeoutMillis && idle.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+
+        try {
+            fillToMinimum();
+        } catch (SQLException e) {
+            System.err.println("No se pudo reponer el mínimo de conexiones: " + e.getMessage());
+        }
+
+        if (leakDetectionMillis > 0) {
+            for (PooledConnection pooled : borrowed) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > leakDetectionMillis) {
+                    pooled.leakReported = true;
+                    System.err.println("Posible fuga de conexión: prestada hace " + (now - pooled.borrowedAt)
+                        + " ms por el hilo " + pooled.borrowThread
+                        + (pooled.borrowSite == null ? " (-Darion.pool.leakTrace=true muestra dónde)" : ""));
+                    if (pooled.borrowSite != null) {
+                        pooled.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    private static int intProperty(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        return value != null && !value.isBlank() ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    private static long longProperty(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        return value != null && !value.isBlank() ? Long.parseLong(value.trim()) : defaultValue;
+    }
+
+    // Conexión física junto con los datos de préstamo que usa el pool
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long lastUsedAt;
+        private volatile long borrowedAt;
+        private volatile boolean leakReported;
+        private volatile Exception borrowSite;
+        private volatile String borrowThread;
+        private final AtomicBoolean discarded = new AtomicBoolean(false);
+        private final StatementCache statements;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = statementCacheSize > 0 ? new StatementCache(physical, statementCacheSize) : null;
+        }
+
+        // Cada préstamo recibe su propio proxy para que un close() tardío no afecte al siguiente
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean returned = new AtomicBoolean(false);
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        private PreparedStatement prepare(Connection proxy, SqlStatement sql) throws SQLException {
+            if (returned.get()) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+            return pooled.statements != null ? pooled.statements.prepare(proxy, sql) : sql.prepare(pooled.physical);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned.get()) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.arion.Config;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Ejecutor dedicado para el acceso a datos: mantiene el JDBC fuera del hilo de JavaFX
+public class DataExecutor {
+
+    // -Darion.executor=platform usa un pool fijo de hilos en lugar de hilos virtuales
+    private static final ExecutorService executor = createExecutor();
+
+    private static final Executor fxExecutor = Platform::runLater;
+
+    private DataExecutor() {}
+
+    // Ejecuta una consulta en segundo plano
+    public static <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    // Consulta de un modelo en segundo plano, registrada como evento JFR com.arion.ModelQuery
+    public static <T> CompletableFuture<T> query(String name, Supplier<T> query) {
+        return supply(() -> AppEvents.modelQuery(name, query));
+    }
+
+    // Ejecuta una tarea sin resultado en segundo plano
+    public static CompletableFuture<Void> run(Runnable task) {
+        return CompletableFuture.runAsync(task, executor);
+    }
+
+    // Ejecutor de fondo, para encadenar pasos con thenApplyAsync
+    public static Executor background() {
+        return executor;
+    }
+
+    // Ejecutor que entrega los resultados en el hilo de JavaFX (Platform.runLater)
+    public static Executor fx() {
+        return fxExecutor;
+    }
+
+    public static void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ExecutorService createExecutor() {
+        if ("platform".equalsIgnoreCase(System.getProperty("arion.executor", "virtual"))) {
+            AtomicInteger counter = new AtomicInteger();
+            int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+            return Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "arion-data-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("arion-data-", 0).factory());
+    }
+}
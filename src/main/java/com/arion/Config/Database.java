@@ -2,34 +2,75 @@ package com.arion.Config;
 
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Properties;
 
 public class Database {
 
-    private static Connection connection;
+    private static volatile ConnectionPool pool;
 
-    // Método para obtener la conexión
+    // Método para obtener una conexión del pool (se devuelve al pool con close())
     public static Connection getConnection() throws Exception {
-        if (connection == null || connection.isClosed()) {
-            // Leer archivo config.properties
-            Properties props = new Properties();
-            try (InputStream input = Database.class.getResourceAsStream("/config.properties")) {
-                if (input == null) {
-                    throw new Exception("No se encontró el archivo config.properties");
+        return getPool().borrow();
+    }
+
+    // Sentencia SQL del registro, preparada una vez por conexión del pool y reutilizada.
+    // Se cierra igual que cualquier PreparedStatement (try-with-resources).
+    public static PreparedStatement prepare(Connection conn, SqlStatement sql) throws SQLException {
+        return ConnectionPool.prepare(conn, sql);
+    }
+
+    // Crea el pool y abre las conexiones mínimas antes de la primera consulta
+    public static void prewarm() throws Exception {
+        getPool().prewarm();
+        System.out.println("Pool de conexiones listo (" + pool.getTotalCount() + " conexiones abiertas).");
+    }
+
+    // Cierra todas las conexiones del pool al salir de la aplicación
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            QueryMetrics.unregisterPool();
+            pool.close();
+            pool = null;
+        }
+    }
+
+    private static ConnectionPool getPool() throws Exception {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (Database.class) {
+                current = pool;
+                if (current == null) {
+                    Properties props = loadProperties();
+                    QueryMetrics.configure(props);
+                    current = new ConnectionPool(props);
+                    QueryMetrics.registerPool(current);
+                    pool = current;
+                    System.out.println("Conexión a la base de datos establecida.");
                 }
-                props.load(input);
             }
+        }
+        return current;
+    }
 
-            String url = props.getProperty("db.url");
-            String user = props.getProperty("db.user");
-            String password = props.getProperty("db.password");
+    // Leer archivo config.properties (una sola vez, al crear el pool).
+    // Las propiedades de sistema db.* (-Ddb.url=...) tienen prioridad, por ejemplo para los benchmarks.
+    private static Properties loadProperties() throws Exception {
+        Properties props = new Properties();
+        try (InputStream input = Database.class.getResourceAsStream("/config.properties")) {
+            if (input != null) {
+                props.load(input);
+            } else if (System.getProperty("db.url") == null) {
+                throw new Exception("No se encontró el archivo config.properties");
+            }
+        }
 
-            // Conectar a la base de datos
-            connection = DriverManager.getConnection(url, user, password);
-            System.out.println("Conexión a la base de datos establecida.");
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("db.")) {
+                props.setProperty(name, System.getProperty(name));
+            }
         }
-        return connection;
+        return props;
     }
 }
@@ -0,0 +1,104 @@
+package com.arion.Config;
+
+import com.arion.Model.DomainEvent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Bus de eventos de dominio. Los modelos publican desde cualquier hilo; los eventos se acumulan
+// y se entregan juntos en la siguiente vuelta del hilo de JavaFX. Cada suscriptor recibe una sola
+// llamada por entrega con los eventos que le interesan, así una ráfaga de cambios produce un
+// único refresco por pantalla en lugar de uno por cambio.
+public final class DomainEventBus {
+
+    public interface Subscription {
+        void cancel();
+    }
+
+    private static final class Subscriber implements Subscription {
+        private final Set<Class<? extends DomainEvent>> types;
+        private final Consumer<List<DomainEvent>> listener;
+
+        private Subscriber(Set<Class<? extends DomainEvent>> types, Consumer<List<DomainEvent>> listener) {
+            this.types = types;
+            this.listener = listener;
+        }
+
+        @Override
+        public void cancel() {
+            SUBSCRIBERS.remove(this);
+        }
+
+        private boolean accepts(DomainEvent event) {
+            return types.contains(event.getClass());
+        }
+    }
+
+    private static final List<Subscriber> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+    private static final Object LOCK = new Object();
+    private static List<DomainEvent> pending = new ArrayList<>();
+    private static boolean flushScheduled;
+
+    private DomainEventBus() {}
+
+    // Recibe, en el hilo de JavaFX, los eventos de los tipos indicados acumulados desde la última entrega
+    @SafeVarargs
+    public static Subscription subscribe(Consumer<List<DomainEvent>> listener, Class<? extends DomainEvent>... types) {
+        // Se copian uno a uno: pasar el arreglo de varargs a otro método varargs no es seguro
+        Set<Class<? extends DomainEvent>> accepted = new HashSet<>();
+        for (Class<? extends DomainEvent> type : types) {
+            accepted.add(type);
+        }
+        Subscriber subscriber = new Subscriber(Set.copyOf(accepted), listener);
+        SUBSCRIBERS.add(subscriber);
+        return subscriber;
+    }
+
+    public static void publish(DomainEvent event) {
+        // Sin suscriptores (por ejemplo, en los benchmarks, sin JavaFX) no hay nada que entregar
+        if (SUBSCRIBERS.isEmpty()) {
+            return;
+        }
+
+        synchronized (LOCK) {
+            pending.add(event);
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        DataExecutor.fx().execute(DomainEventBus::flush);
+    }
+
+    private static void flush() {
+        List<DomainEvent> batch;
+        synchronized (LOCK) {
+            batch = pending;
+            pending = new ArrayList<>();
+            flushScheduled = false;
+        }
+
+        for (Subscriber subscriber : SUBSCRIBERS) {
+            List<DomainEvent> matching = new ArrayList<>();
+            for (DomainEvent event : batch) {
+                if (subscriber.accepts(event)) {
+                    matching.add(event);
+                }
+            }
+            if (matching.isEmpty()) {
+                continue;
+            }
+
+            try {
+                subscriber.listener.accept(matching);
+            } catch (RuntimeException e) {
+                // Un suscriptor con errores no impide la entrega a los demás
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.arion.Config;
+
+import javafx.application.Platform;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+// Vigilante del hilo de JavaFX: un hilo aparte le envía un ping (Platform.runLater) cada pocos
+// milisegundos; si el ping no se atiende antes del umbral, el hilo está bloqueado (un handler
+// con JDBC, un PDF, un FXML grande...). Mientras dura el bloqueo se muestrea su pila, y el tiempo
+// se atribuye al primer marco de la app (com.arion.*), así se arma el informe de "sitios que más
+// bloquean". Cada bloqueo se emite también como evento JFR com.arion.FxStall.
+// -Darion.fx.stallMs=100 cambia el umbral; -Darion.fx.stallDetector=false lo desactiva.
+public final class FxStallDetector {
+
+    public record CallSite(String frame, long blockedMillis, long stalls) {}
+
+    public interface DetectorMBean {
+        long getStallCount();
+        long getMaxStallMillis();
+        long getThresholdMillis();
+        void setThresholdMillis(long millis);
+        String[] getTopCallSites();
+        void resetStats();
+    }
+
+    @Name("com.arion.FxStall")
+    @Label("Bloqueo del hilo de JavaFX")
+    @Category({"Arion", "UI"})
+    @Description("El hilo de JavaFX no atendió eventos durante más del umbral")
+    @StackTrace(false)
+    static final class StallEvent extends Event {
+        @Label("Duración")
+        @Timespan(Timespan.MILLISECONDS)
+        long stallMillis;
+
+        @Label("Sitio")
+        String callSite;
+
+        @Label("Pila del hilo de JavaFX")
+        String fxStack;
+    }
+
+    private static final String NO_APP_FRAME = "(fuera del código de la app)";
+    private static final int STACK_DEPTH = 24;
+
+    private static final Map<String, LongAdder> BLOCKED_MILLIS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> STALLS = new ConcurrentHashMap<>();
+    private static final LongAdder STALL_COUNT = new LongAdder();
+    private static final AtomicLong MAX_STALL_MILLIS = new AtomicLong();
+
+    private static volatile long thresholdNanos =
+        TimeUnit.MILLISECONDS.toNanos(Long.getLong("arion.fx.stallMs", 100));
+    private static ScheduledExecutorService watchdog;
+    private static long samplePeriodMillis;
+    private static ObjectName mbeanName;
+
+    // Estado del ping: lo escribe el vigilante al enviarlo y el hilo de JavaFX al atenderlo
+    private static volatile long pingSentAt;
+    private static volatile long pingAnsweredAt;
+
+    // Bloqueo en curso; solo lo toca el hilo del vigilante
+    private static Thread fxThread;
+    private static long stallStartedAt;
+    private static String stallSite;
+    private static String stallStack;
+    // Empieza al detectar el bloqueo (un umbral después de su inicio real) y termina cuando el hilo
+    // responde, así queda alineado con los demás eventos de la grabación
+    private static StallEvent stallEvent;
+
+    private FxStallDetector() {}
+
+    // Se llama desde Application.start (en el hilo de JavaFX)
+    public static synchronized void start() {
+        if (watchdog != null || !Boolean.parseBoolean(System.getProperty("arion.fx.stallDetector", "true"))) {
+            return;
+        }
+        if (!Platform.isFxApplicationThread()) {
+            throw new IllegalStateException("FxStallDetector.start() debe llamarse en el hilo de JavaFX");
+        }
+
+        fxThread = Thread.currentThread();
+        watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "arion-fx-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Se muestrea cuatro veces por umbral, para ver bloqueos poco más largos que él
+        samplePeriodMillis = Math.max(10, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 4);
+        watchdog.scheduleAtFixedRate(FxStallDetector::tick, samplePeriodMillis, samplePeriodMillis, TimeUnit.MILLISECONDS);
+        registerMBean();
+    }
+
+    public static synchronized void stop() {
+        if (watchdog == null) {
+            return;
+        }
+        watchdog.shutdownNow();
+        watchdog = null;
+        unregisterMBean();
+
+        List<CallSite> top = topCallSites(10);
+        if (!top.isEmpty()) {
+            System.out.println("Bloqueos del hilo de JavaFX (" + STALL_COUNT.sum() + ", máximo "
+                + MAX_STALL_MILLIS.get() + " ms). Sitios que más bloquean:");
+            top.forEach(site -> System.out.println("  " + describe(site)));
+        }
+    }
+
+    // Sitios con más tiempo de bloqueo muestreado
+    public static List<CallSite> topCallSites(int limit) {
+        List<CallSite> sites = new ArrayList<>();
+        BLOCKED_MILLIS.forEach((frame, millis) -> {
+            LongAdder stalls = STALLS.get(frame);
+            sites.add(new CallSite(frame, millis.sum(), stalls != null ? stalls.sum() : 0));
+        });
+        sites.sort(Comparator.comparingLong(CallSite::blockedMillis).reversed());
+        return sites.size() > limit ? sites.subList(0, limit) : sites;
+    }
+
+    public static void reset() {
+        BLOCKED_MILLIS.clear();
+        STALLS.clear();
+        STALL_COUNT.reset();
+        MAX_STALL_MILLIS.set(0);
+    }
+
+    private static void tick() {
+        long now = System.nanoTime();
+        long sent = pingSentAt;
+
+        if (sent == 0 || pingAnsweredAt >= sent) {
+            // El hilo respondió: cierra el bloqueo en curso (si había) y envía otro ping
+            if (stallSite != null) {
+                finishStall(pingAnsweredAt);
+            }
+            pingSentAt = now;
+            Platform.runLater(() -> pingAnsweredAt = System.nanoTime());
+            return;
+        }
+
+        if (now - sent < thresholdNanos) {
+            return;
+        }
+
+        // La primera muestra se lleva el tiempo bloqueado hasta ahora; las siguientes, un período cada una
+        StackTraceElement[] stack = fxThread.getStackTrace();
+        String site = callSite(stack);
+        long blocked = samplePeriodMillis;
+        if (stallSite == null) {
+            stallStartedAt = sent;
+            stallEvent = new StallEvent();
+            stallEvent.begin();
+            stallSite = site;
+            stallStack = format(stack);
+            STALLS.computeIfAbsent(site, key -> new LongAdder()).increment();
+            blocked = TimeUnit.NANOSECONDS.toMillis(now - sent);
+        }
+        BLOCKED_MILLIS.computeIfAbsent(site, key -> new LongAdder()).add(blocked);
+    }
+
+    private static void finishStall(long endedAt) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(endedAt - stallStartedAt);
+        STALL_COUNT.increment();
+        MAX_STALL_MILLIS.accumulateAndGet(millis, Math::max);
+
+        StallEvent event = stallEvent;
+        event.end();
+        if (event.shouldCommit()) {
+            event.stallMillis = millis;
+            event.callSite = stallSite;
+            event.fxStack = stallStack;
+            event.commit();
+        }
+
+        stallEvent = null;
+        stallSite = null;
+        stallStack = null;
+    }
+
+    // Primer marco del código de la app, sin contar este vigilante
+    private static String callSite(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (frame.getClassName().startsWith("com.arion.")
+                    && !frame.getClassName().startsWith(FxStallDetector.class.getName())) {
+                return frame.toString();
+            }
+        }
+        return NO_APP_FRAME;
+    }
+
+    private static String format(StackTraceElement[] stack) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < Math.min(stack.length, STACK_DEPTH); i++) {
+            text.append(stack[i]).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static String describe(CallSite site) {
+        return site.frame() + " — " + site.blockedMillis() + " ms en " + site.stalls() + " bloqueos";
+    }
+
+    private static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("com.arion:type=FxStallDetector");
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new StandardMBean(new DetectorView(), DetectorMBean.class, false), name);
+            }
+            mbeanName = name;
+        } catch (JMException e) {
+            System.err.println("No se pudo publicar el detector de bloqueos por JMX: " + e.getMessage());
+        }
+    }
+
+    private static void unregisterMBean() {
+        if (mbeanName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+        } catch (JMException e) {
+            // Ya no estaba registrado
+        }
+        mbeanName = null;
+    }
+
+    private static final class DetectorView implements DetectorMBean {
+        @Override public long getStallCount() { return STALL_COUNT.sum(); }
+        @Override public long getMaxStallMillis() { return MAX_STALL_MILLIS.get(); }
+        @Override public long getThresholdMillis() { return TimeUnit.NANOSECONDS.toMillis(thresholdNanos); }
+        // El período de muestreo se fija al arrancar; un umbral nuevo solo cambia qué cuenta como bloqueo
+        @Override public void setThresholdMillis(long millis) { thresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis); }
+        @Override public String[] getTopCallSites() {
+            return topCallSites(20).stream().map(FxStallDetector::describe).toArray(String[]::new);
+        }
+        @Override public void resetStats() { reset(); }
+    }
+}
@@ -0,0 +1,240 @@
+package com.arion.Config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Envoltura de una conexión física que mide cada ejecución (QueryMetrics): latencia de execute*,
+// filas leídas con ResultSet.next() o afectadas por un update, y los parámetros enlazados para el
+// log de consultas lentas. El pool envuelve las conexiones al abrirlas, de modo que la caché de
+// sentencias y los modelos no cambian.
+final class InstrumentedConnection {
+
+    // Texto SQL -> nombre del registro; las sentencias armadas en tiempo de ejecución se nombran
+    // por verbo y tabla ("adhoc:SELECT transactions") para agrupar sus variantes
+    private static final Map<String, String> NAMES = new ConcurrentHashMap<>();
+    private static final int MAX_AD_HOC_NAMES = 256;
+    private static final Set<String> SKIPPED = Set.of("IF", "NOT", "EXISTS", "ONLY");
+
+    static {
+        for (SqlStatement sql : SqlStatement.values()) {
+            NAMES.put(sql.sql(), sql.name());
+        }
+    }
+
+    private InstrumentedConnection() {}
+
+    static Connection wrap(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(physical));
+    }
+
+    static String nameOf(String sql) {
+        String name = NAMES.get(sql);
+        if (name != null) {
+            return name;
+        }
+        name = adHocName(sql);
+        if (NAMES.size() < MAX_AD_HOC_NAMES) {
+            NAMES.put(sql, name);
+        }
+        return name;
+    }
+
+    // Sin comentarios; el verbo y la primera tabla después de FROM / INTO / UPDATE / TABLE
+    private static String adHocName(String sql) {
+        String[] words = sql.replaceAll("(?s)/\\*.*?\\*/", " ").replaceAll("--[^\\n]*", " ")
+                .trim().split("\\s+");
+        String verb = words[0].toUpperCase(Locale.ROOT);
+        for (int i = 0; i < words.length - 1; i++) {
+            String word = words[i].toUpperCase(Locale.ROOT);
+            if (word.equals("FROM") || word.equals("INTO") || word.equals("UPDATE") || word.equals("TABLE")) {
+                int next = i + 1;
+                while (next < words.length - 1 && SKIPPED.contains(words[next].toUpperCase(Locale.ROOT))) {
+                    next++;
+                }
+                return "adhoc:" + verb + " " + words[next].replaceAll("[^A-Za-z0-9_.]", "");
+            }
+        }
+        return "adhoc:" + verb;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+
+        private ConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement", "prepareCall" -> {
+                    Statement statement = (Statement) InstrumentedConnection.invoke(physical, method, args);
+                    return wrapStatement(proxy, statement, QueryMetrics.statement(nameOf((String) args[0])),
+                                         method.getReturnType());
+                }
+                case "createStatement" -> {
+                    Statement statement = (Statement) InstrumentedConnection.invoke(physical, method, args);
+                    return wrapStatement(proxy, statement, null, Statement.class);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "InstrumentedConnection[" + physical + "]";
+                }
+                default -> {
+                    return InstrumentedConnection.invoke(physical, method, args);
+                }
+            }
+        }
+
+        private Statement wrapStatement(Object connection, Statement statement,
+                                        QueryMetrics.StatementStats stats, Class<?> type) {
+            Class<?> iface = type == CallableStatement.class ? CallableStatement.class
+                    : type == PreparedStatement.class ? PreparedStatement.class : Statement.class;
+            return (Statement) Proxy.newProxyInstance(
+                    Statement.class.getClassLoader(),
+                    new Class<?>[]{iface},
+                    new StatementHandler((Connection) connection, statement, stats));
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Connection connection;
+        private final Statement statement;
+        // null en un Statement simple: el nombre sale del SQL de cada execute
+        private final QueryMetrics.StatementStats preparedStats;
+        // Parámetros enlazados por índice JDBC (desde 1)
+        private Object[] parameters = new Object[0];
+
+        private StatementHandler(Connection connection, Statement statement, QueryMetrics.StatementStats preparedStats) {
+            this.connection = connection;
+            this.statement = statement;
+            this.preparedStats = preparedStats;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+
+            switch (name) {
+                case "clearParameters" -> Arrays.fill(parameters, null);
+                case "getResultSet" -> {
+                    ResultSet rs = (ResultSet) InstrumentedConnection.invoke(statement, method, args);
+                    return rs != null && preparedStats != null ? countRows(rs, preparedStats) : rs;
+                }
+                case "getConnection" -> {
+                    return connection;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return statement.toString();
+                }
+                default -> {
+                    if (preparedStats != null && name.startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer index) {
+                        bind(index, name.equals("setNull") ? null : args[1]);
+                    }
+                }
+            }
+            return InstrumentedConnection.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            QueryMetrics.StatementStats stats = preparedStats;
+            if (stats == null) {
+                stats = QueryMetrics.statement(args != null && args.length > 0 && args[0] instanceof String sql
+                        ? nameOf(sql) : "adhoc:BATCH");
+            }
+
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = InstrumentedConnection.invoke(statement, method, args);
+                failed = false;
+                if (result instanceof ResultSet rs) {
+                    return countRows(rs, stats);
+                }
+                if (result instanceof Integer count) {
+                    stats.addRows(Math.max(0, count));
+                } else if (result instanceof Long count) {
+                    stats.addRows(Math.max(0, count));
+                } else if (result instanceof int[] counts) {
+                    for (int count : counts) {
+                        stats.addRows(Math.max(0, count));
+                    }
+                }
+                return result;
+            } finally {
+                QueryMetrics.record(stats, System.nanoTime() - start, failed, parameters);
+            }
+        }
+
+        private void bind(int index, Object value) {
+            if (index >= parameters.length) {
+                parameters = Arrays.copyOf(parameters, index + 1);
+            }
+            parameters[index] = value;
+        }
+
+        private ResultSet countRows(ResultSet rs, QueryMetrics.StatementStats stats) {
+            return (ResultSet) Proxy.newProxyInstance(
+                    ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "next" -> {
+                                boolean more = rs.next();
+                                if (more) {
+                                    stats.addRows(1);
+                                }
+                                return more;
+                            }
+                            case "equals" -> {
+                                return proxy == args[0];
+                            }
+                            case "hashCode" -> {
+                                return System.identityHashCode(proxy);
+                            }
+                            default -> {
+                                return InstrumentedConnection.invoke(rs, method, args);
+                            }
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.arion.Config;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histograma de latencias en microsegundos con cubetas logarítmicas: cuatro cubetas por cada
+// potencia de 2, así los percentiles tienen un error relativo menor al 25% con memoria fija
+// (256 contadores) y registrar un valor no bloquea ni reserva memoria.
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        buckets.incrementAndGet(indexOf(value));
+        count.increment();
+        totalMicros.add(value);
+        maxMicros.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long maxMicros() {
+        return maxMicros.get();
+    }
+
+    public long meanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalMicros.sum() / n;
+    }
+
+    // Límite superior de la cubeta donde cae el percentil (0 < p <= 1), acotado al máximo observado
+    public long percentileMicros(double p) {
+        long n = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            n += buckets.get(i);
+        }
+        if (n == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(p * n));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(upperBound(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalMicros.reset();
+        maxMicros.set(0);
+    }
+
+    // Los valores menores que SUB_BUCKETS tienen cubeta propia; el resto se agrupa por su bit más
+    // alto y los dos bits siguientes
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return exponent * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + sub) * width) + width - 1;
+    }
+}
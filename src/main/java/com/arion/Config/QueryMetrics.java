@@ -0,0 +1,248 @@
+package com.arion.Config;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+// Métricas de las consultas: por sentencia con nombre (las del registro SqlStatement; las que se
+// arman en tiempo de ejecución se nombran por verbo y tabla), llamadas, errores, filas devueltas e
+// histograma de latencia, más el tiempo de espera por una conexión del pool. Las sentencias que
+// superan el umbral van al log de consultas lentas con sus parámetros.
+// Todo se publica por JMX bajo el dominio "com.arion" (jconsole / VisualVM sobre el proceso local).
+public final class QueryMetrics {
+
+    // Atributos JMX de una sentencia (com.arion:type=Query,name=...)
+    public interface StatementMBean {
+        long getCount();
+        long getErrors();
+        long getRows();
+        long getP50Micros();
+        long getP99Micros();
+        long getMaxMicros();
+        long getMeanMicros();
+    }
+
+    // Atributos JMX del pool (com.arion:type=ConnectionPool)
+    public interface PoolMBean {
+        int getActiveConnections();
+        int getIdleConnections();
+        int getTotalConnections();
+        int getMaxConnections();
+        long getWaitCount();
+        long getWaitP50Micros();
+        long getWaitP99Micros();
+        long getWaitMaxMicros();
+        long getSlowQueryThresholdMillis();
+        void setSlowQueryThresholdMillis(long millis);
+        void resetStats();
+    }
+
+    public static final class StatementStats implements StatementMBean {
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+
+        private StatementStats(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void addRows(long count) {
+            rows.add(count);
+        }
+
+        @Override public long getCount() { return latency.count(); }
+        @Override public long getErrors() { return errors.sum(); }
+        @Override public long getRows() { return rows.sum(); }
+        @Override public long getP50Micros() { return latency.percentileMicros(0.50); }
+        @Override public long getP99Micros() { return latency.percentileMicros(0.99); }
+        @Override public long getMaxMicros() { return latency.maxMicros(); }
+        @Override public long getMeanMicros() { return latency.meanMicros(); }
+
+        private void reset() {
+            latency.reset();
+            errors.reset();
+            rows.reset();
+        }
+    }
+
+    private static final Logger SLOW_LOG = Logger.getLogger("com.arion.sql.slow");
+    private static final String DOMAIN = "com.arion";
+
+    private static final Map<String, StatementStats> STATEMENTS = new ConcurrentHashMap<>();
+    private static final LatencyHistogram CONNECTION_WAIT = new LatencyHistogram();
+
+    private static volatile boolean enabled = true;
+    private static volatile long slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(250);
+    private static volatile ObjectName poolName;
+
+    private QueryMetrics() {}
+
+    // db.metrics.enabled (true por defecto) y db.metrics.slowQueryMs (250 por defecto; 0 = sin log)
+    static void configure(Properties props) {
+        enabled = Boolean.parseBoolean(props.getProperty("db.metrics.enabled", "true").trim());
+        String slowMs = props.getProperty("db.metrics.slowQueryMs");
+        if (slowMs != null && !slowMs.isBlank()) {
+            slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(slowMs.trim()));
+        }
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static StatementStats statement(String name) {
+        StatementStats stats = STATEMENTS.get(name);
+        if (stats != null) {
+            return stats;
+        }
+
+        StatementStats created = new StatementStats(name);
+        stats = STATEMENTS.putIfAbsent(name, created);
+        if (stats != null) {
+            return stats;
+        }
+        register(objectName("Query", name), new StandardMBean(created, StatementMBean.class, false));
+        return created;
+    }
+
+    // Una ejecución terminada; 'parameters' solo se usa si la sentencia fue lenta
+    static void record(StatementStats stats, long elapsedNanos, boolean failed, Object[] parameters) {
+        stats.latency.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (failed) {
+            stats.errors.increment();
+        }
+
+        long threshold = slowQueryNanos;
+        if (threshold > 0 && elapsedNanos >= threshold && SLOW_LOG.isLoggable(Level.WARNING)) {
+            SLOW_LOG.warning(String.format("Consulta lenta %s: %d ms%s, parámetros %s",
+                    stats.name, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), failed ? " (con error)" : "",
+                    describeParameters(stats.name, parameters)));
+        }
+    }
+
+    static void recordConnectionWait(long elapsedNanos) {
+        CONNECTION_WAIT.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+
+    // Sentencias con al menos una ejecución, las de mayor tiempo total primero
+    public static List<StatementStats> statements() {
+        List<StatementStats> stats = new ArrayList<>();
+        for (StatementStats statement : STATEMENTS.values()) {
+            if (statement.getCount() > 0) {
+                stats.add(statement);
+            }
+        }
+        stats.sort(Comparator.comparingLong((StatementStats s) -> s.getMeanMicros() * s.getCount()).reversed());
+        return stats;
+    }
+
+    public static LatencyHistogram connectionWait() {
+        return CONNECTION_WAIT;
+    }
+
+    public static void reset() {
+        STATEMENTS.values().forEach(StatementStats::reset);
+        CONNECTION_WAIT.reset();
+    }
+
+    static void registerPool(ConnectionPool pool) {
+        ObjectName name = objectName("ConnectionPool", null);
+        register(name, new StandardMBean(new PoolView(pool), PoolMBean.class, false));
+        poolName = name;
+    }
+
+    static void unregisterPool() {
+        ObjectName name = poolName;
+        poolName = null;
+        if (name == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            // Ya no estaba registrado
+        }
+    }
+
+    // Los parámetros de usuarios (correo, hash de contraseña) nunca se escriben en el log
+    private static String describeParameters(String name, Object[] parameters) {
+        if (parameters == null || parameters.length == 0) {
+            return "[]";
+        }
+        if (name.startsWith("USER_")) {
+            return "[ocultos]";
+        }
+
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 1; i < parameters.length; i++) {
+            if (i > 1) {
+                text.append(", ");
+            }
+            Object value = parameters[i];
+            String shown = value instanceof String s ? "'" + s + "'" : String.valueOf(value);
+            text.append(shown.length() > 100 ? shown.substring(0, 100) + "..." : shown);
+        }
+        return text.append(']').toString();
+    }
+
+    private static void register(ObjectName name, Object mbean) {
+        if (name == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+        } catch (JMException e) {
+            System.err.println("No se pudo publicar la métrica " + name + " por JMX: " + e.getMessage());
+        }
+    }
+
+    private static ObjectName objectName(String type, String name) {
+        try {
+            String text = DOMAIN + ":type=" + type;
+            return new ObjectName(name != null ? text + ",name=" + ObjectName.quote(name) : text);
+        } catch (JMException e) {
+            return null;
+        }
+    }
+
+    private static final class PoolView implements PoolMBean {
+        private final ConnectionPool pool;
+
+        private PoolView(ConnectionPool pool) {
+            this.pool = pool;
+        }
+
+        @Override public int getActiveConnections() { return pool.getActiveCount(); }
+        @Override public int getIdleConnections() { return pool.getIdleCount(); }
+        @Override public int getTotalConnections() { return pool.getTotalCount(); }
+        @Override public int getMaxConnections() { return pool.getMaxSize(); }
+        @Override public long getWaitCount() { return CONNECTION_WAIT.count(); }
+        @Override public long getWaitP50Micros() { return CONNECTION_WAIT.percentileMicros(0.50); }
+        @Override public long getWaitP99Micros() { return CONNECTION_WAIT.percentileMicros(0.99); }
+        @Override public long getWaitMaxMicros() { return CONNECTION_WAIT.maxMicros(); }
+        @Override public long getSlowQueryThresholdMillis() { return TimeUnit.NANOSECONDS.toMillis(slowQueryNanos); }
+        @Override public void setSlowQueryThresholdMillis(long millis) { slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(millis); }
+        @Override public void resetStats() { reset(); }
+    }
+}
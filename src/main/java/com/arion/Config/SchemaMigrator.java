@@ -0,0 +1,119 @@
+package com.arion.Config;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// Aplica al arrancar los scripts de src/main/resources/db/migration que aún no se han ejecutado,
+// en orden de versión, y registra cada uno en la tabla schema_version.
+// Para agregar una migración: crear V<n>__descripcion.sql y sumarla al final de MIGRATIONS.
+public class SchemaMigrator {
+
+    private static final String[] MIGRATIONS = {
+        "V1__base_schema.sql",
+        "V2__monthly_rollup.sql",
+        "V3__search_indexes.sql",
+        "V4__transaction_indexes.sql",
+        "V5__budget_period_date.sql",
+        "V6__categories.sql"
+    };
+
+    private static final String MIGRATION_PATH = "/db/migration/";
+
+    // Clave del bloqueo de PostgreSQL que evita que dos instancias migren a la vez
+    private static final long MIGRATION_LOCK = 0x41524F4EL;
+
+    private SchemaMigrator() {}
+
+    // Devuelve cuántas migraciones se aplicaron
+    public static int migrate() throws Exception {
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SELECT pg_advisory_xact_lock(" + MIGRATION_LOCK + ")");
+                stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                             "version INTEGER PRIMARY KEY, " +
+                             "script VARCHAR(100) NOT NULL, " +
+                             "checksum BIGINT NOT NULL, " +
+                             "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+            }
+
+            Map<Integer, Long> applied = appliedVersions(conn);
+            int count = 0;
+
+            // Todas las migraciones pendientes se aplican en la misma transacción que el bloqueo:
+            // si una falla, no queda ninguna a medias
+            try {
+                for (String script : MIGRATIONS) {
+                    int version = versionOf(script);
+                    String sql = readScript(script);
+                    long checksum = checksum(sql);
+
+                    Long appliedChecksum = applied.get(version);
+                    if (appliedChecksum != null) {
+                        if (appliedChecksum != checksum) {
+                            System.err.println("La migración " + script + " cambió después de aplicarse; se ignora.");
+                        }
+                        continue;
+                    }
+
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute(sql);
+                    }
+                    try (PreparedStatement record = conn.prepareStatement(
+                            "INSERT INTO schema_version (version, script, checksum) VALUES (?, ?, ?)")) {
+                        record.setInt(1, version);
+                        record.setString(2, script);
+                        record.setLong(3, checksum);
+                        record.executeUpdate();
+                    }
+                    System.out.println("Migración aplicada: " + script);
+                    count++;
+                }
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            }
+            return count;
+        }
+    }
+
+    private static Map<Integer, Long> appliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    // "V12__descripcion.sql" -> 12
+    private static int versionOf(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    private static String readScript(String script) throws Exception {
+        try (InputStream input = SchemaMigrator.class.getResourceAsStream(MIGRATION_PATH + script)) {
+            if (input == null) {
+                throw new Exception("No se encontró la migración " + script);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static long checksum(String sql) {
+        CRC32 crc = new CRC32();
+        crc.update(sql.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,156 @@
+package com.arion.Config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Registro de las sentencias SQL fijas de la aplicación. Cada una se prepara una sola vez por
+// conexión del pool (Database.prepare) y se reutiliza como sentencia preparada en el servidor,
+// de modo que PostgreSQL no vuelve a analizarla ni planificarla en cada consulta.
+// Las consultas que se arman en tiempo de ejecución (paginación con orden variable, importación,
+// reconstrucción del resumen) siguen usando conn.prepareStatement directamente.
+public enum SqlStatement {
+
+    // ---------- Usuarios ----------
+
+    USER_FIND_FOR_LOGIN(
+        "SELECT id, username, password, email, created_at FROM users WHERE username = ? OR email = ?"),
+
+    USER_INSERT(
+        "INSERT INTO users (username, password, email) VALUES (?, ?, ?)", true),
+
+    USER_COUNT_BY_USERNAME(
+        "SELECT COUNT(*) FROM users WHERE username = ?"),
+
+    // ---------- Categorías ----------
+
+    CATEGORY_ALL_BY_USER(
+        "SELECT id, name FROM categories WHERE user_id = ?"),
+
+    // Devuelve el id de la categoría, creándola si no existe
+    CATEGORY_GET_OR_CREATE(
+        "WITH created AS (" +
+        "    INSERT INTO categories (user_id, name) VALUES (?, ?) ON CONFLICT (user_id, name) DO NOTHING RETURNING id" +
+        ") " +
+        "SELECT id FROM created UNION ALL SELECT id FROM categories WHERE user_id = ? AND name = ? LIMIT 1"),
+
+    CATEGORY_RENAME(
+        "UPDATE categories SET name = ? WHERE user_id = ? AND name = ?"),
+
+    // ---------- Transacciones ----------
+
+    TRANSACTION_INSERT(
+        "INSERT INTO transactions (user_id, description, category_id, date, amount, type, note) VALUES (?, ?, ?, ?, ?, ?, ?)", true),
+
+    TRANSACTION_LOCK_FOR_UPDATE(
+        "SELECT date, category_id, amount, type FROM transactions WHERE id = ? AND user_id = ? FOR UPDATE"),
+
+    TRANSACTION_UPDATE(
+        "UPDATE transactions SET description = ?, category_id = ?, date = ?, amount = ?, type = ?, note = ? WHERE id = ? AND user_id = ?"),
+
+    TRANSACTION_DELETE(
+        "DELETE FROM transactions WHERE id = ? AND user_id = ? RETURNING date, category_id, amount, type"),
+
+    TRANSACTION_ALL_BY_USER(
+        "SELECT * FROM transactions WHERE user_id = ? ORDER BY date DESC"),
+
+    TRANSACTION_RECENT_BY_USER(
+        "SELECT * FROM transactions WHERE user_id = ? ORDER BY date DESC LIMIT ?"),
+
+    TRANSACTION_STREAM_BY_USER(
+        "SELECT * FROM transactions WHERE user_id = ? ORDER BY date DESC, id DESC"),
+
+    // ---------- Resumen mensual ----------
+
+    ROLLUP_COUNT_BY_USER(
+        "SELECT SUM(tx_count) as total FROM transaction_monthly_rollup WHERE user_id = ?"),
+
+    ROLLUP_TOTAL_BY_TYPE(
+        "SELECT SUM(total) as total FROM transaction_monthly_rollup WHERE user_id = ? AND type = ?"),
+
+    ROLLUP_EXPENSES_BY_CATEGORY_AND_MONTH(
+        "SELECT total FROM transaction_monthly_rollup " +
+        "WHERE user_id = ? AND year_month = ? AND category_id = ? AND type = 'EXPENSE'"),
+
+    ROLLUP_EXPENSES_BY_CATEGORY(
+        "SELECT category_id, SUM(total) as total FROM transaction_monthly_rollup " +
+        "WHERE user_id = ? AND type = 'EXPENSE' GROUP BY category_id ORDER BY total DESC"),
+
+    // Gasto de varios presupuestos a la vez (ids de categoría en un arreglo y rango de meses)
+    ROLLUP_EXPENSES_FOR_BUDGETS(
+        "SELECT category_id, year_month AS month, total " +
+        "FROM transaction_monthly_rollup " +
+        "WHERE user_id = ? AND type = 'EXPENSE' AND category_id = ANY(?) " +
+        "AND year_month BETWEEN ? AND ?"),
+
+    ROLLUP_UPSERT(
+        "INSERT INTO transaction_monthly_rollup (user_id, year_month, category_id, type, total, tx_count) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (user_id, year_month, category_id, type) DO UPDATE SET " +
+        "total = transaction_monthly_rollup.total + EXCLUDED.total, " +
+        "tx_count = transaction_monthly_rollup.tx_count + EXCLUDED.tx_count"),
+
+    ROLLUP_PRUNE(
+        "DELETE FROM transaction_monthly_rollup " +
+        "WHERE user_id = ? AND year_month = ? AND category_id = ? AND type = ? AND tx_count <= 0"),
+
+    // ---------- Dashboard ----------
+
+    // Cada fila del resultado lleva su tipo en 'kind' (R = reciente, T = total, C = categoría)
+    // y su posición en 'ord', para mantener el orden de cada parte dentro del UNION ALL
+    DASHBOARD_SNAPSHOT(
+        "WITH recent AS (" +
+        "    SELECT id, user_id, description, category_id, date, amount, type, note, " +
+        "           row_number() OVER (ORDER BY date DESC, id DESC) AS ord " +
+        "    FROM transactions WHERE user_id = ? ORDER BY date DESC, id DESC LIMIT ?" +
+        "), totals AS (" +
+        "    SELECT type, SUM(total) AS total FROM transaction_monthly_rollup WHERE user_id = ? GROUP BY type" +
+        "), by_category AS (" +
+        "    SELECT category_id, SUM(total) AS total, row_number() OVER (ORDER BY SUM(total) DESC) AS ord " +
+        "    FROM transaction_monthly_rollup WHERE user_id = ? AND type = 'EXPENSE' GROUP BY category_id" +
+        ") " +
+        "SELECT 'R' AS kind, ord, id, user_id, description, category_id, date, amount, type, note, NULL::numeric AS total FROM recent " +
+        "UNION ALL " +
+        "SELECT 'T', 0, NULL, NULL, NULL, NULL, NULL, NULL, type, NULL, total FROM totals " +
+        "UNION ALL " +
+        "SELECT 'C', ord, NULL, NULL, NULL, category_id, NULL, NULL, NULL, NULL, total FROM by_category " +
+        "ORDER BY kind, ord"),
+
+    // ---------- Presupuestos ----------
+
+    BUDGET_INSERT(
+        "INSERT INTO budgets (user_id, category_id, limit_amount, period_year_month, active) VALUES (?, ?, ?, ?, ?)", true),
+
+    BUDGET_UPDATE(
+        "UPDATE budgets SET category_id = ?, limit_amount = ?, period_year_month = ?, active = ? WHERE id = ? AND user_id = ?"),
+
+    BUDGET_DELETE(
+        "DELETE FROM budgets WHERE id = ? AND user_id = ?"),
+
+    BUDGET_ACTIVE_BY_USER(
+        "SELECT * FROM budgets WHERE user_id = ? AND active = true ORDER BY period_year_month DESC");
+
+    private final String sql;
+    private final boolean returnsGeneratedKeys;
+
+    SqlStatement(String sql) {
+        this(sql, false);
+    }
+
+    SqlStatement(String sql, boolean returnsGeneratedKeys) {
+        this.sql = sql;
+        this.returnsGeneratedKeys = returnsGeneratedKeys;
+    }
+
+    public String sql() {
+        return sql;
+    }
+
+    // Prepara la sentencia en la conexión física, sin pasar por la caché
+    PreparedStatement prepare(Connection conn) throws SQLException {
+        return returnsGeneratedKeys
+            ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+            : conn.prepareStatement(sql);
+    }
+}
@@ -0,0 +1,214 @@
+package com.arion.Config;
+
+import org.postgresql.PGStatement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Sentencias preparadas de una conexión física del pool, con desalojo LRU.
+// El llamador recibe un proxy: al cerrarlo la sentencia vuelve a la caché (con los parámetros
+// limpios) en lugar de cerrarse, y la siguiente consulta con el mismo SqlStatement la reutiliza.
+// Las sentencias se preparan en el servidor desde la primera ejecución (prepareThreshold = 1).
+public final class StatementCache {
+
+    // Aciertos y fallos de todas las conexiones, por sentencia
+    public record Stats(SqlStatement statement, long hits, long misses) {}
+
+    private static final LongAdder[] HITS = newCounters();
+    private static final LongAdder[] MISSES = newCounters();
+
+    private final Connection physical;
+    private final Map<SqlStatement, Entry> entries;
+
+    // Una conexión solo la usa el hilo que la tiene prestada, así que el mapa no necesita sincronización
+    StatementCache(Connection physical, int maxSize) {
+        this.physical = physical;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SqlStatement, Entry> eldest) {
+                if (size() > maxSize) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Devuelve la sentencia cacheada (o la prepara y la guarda). 'handle' es la conexión que ve el llamador.
+    PreparedStatement prepare(Connection handle, SqlStatement sql) throws SQLException {
+        Entry entry = entries.get(sql);
+        if (entry != null && !entry.leased && !entry.statement.isClosed()) {
+            HITS[sql.ordinal()].increment();
+            return entry.lease(handle);
+        }
+
+        MISSES[sql.ordinal()].increment();
+        PreparedStatement statement = sql.prepare(physical);
+        if (entry != null && entry.leased) {
+            // La misma sentencia ya está abierta en esta conexión: esta copia no se guarda
+            return statement;
+        }
+
+        statement.unwrap(PGStatement.class).setPrepareThreshold(1);
+        entry = new Entry(sql, statement);
+        entries.put(sql, entry);
+        return entry.lease(handle);
+    }
+
+    public static List<Stats> stats() {
+        List<Stats> stats = new ArrayList<>();
+        for (SqlStatement sql : SqlStatement.values()) {
+            long hits = HITS[sql.ordinal()].sum();
+            long misses = MISSES[sql.ordinal()].sum();
+            if (hits + misses > 0) {
+                stats.add(new Stats(sql, hits, misses));
+            }
+        }
+        return stats;
+    }
+
+    public static long totalHits() {
+        return sum(HITS);
+    }
+
+    public static long totalMisses() {
+        return sum(MISSES);
+    }
+
+    public static void resetStats() {
+        for (int i = 0; i < HITS.length; i++) {
+            HITS[i].reset();
+            MISSES[i].reset();
+        }
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[SqlStatement.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    private static long sum(LongAdder[] counters) {
+        long total = 0;
+        for (LongAdder counter : counters) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    private final class Entry {
+        private final SqlStatement sql;
+        private final PreparedStatement statement;
+        private boolean leased;
+        private boolean evicted;
+
+        private Entry(SqlStatement sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        private PreparedStatement lease(Connection handle) {
+            leased = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new Lease(this, handle));
+        }
+
+        // Deja la sentencia lista para el siguiente uso (o la cierra si ya salió de la caché)
+        private void release() {
+            leased = false;
+            try {
+                if (evicted) {
+                    statement.close();
+                    return;
+                }
+                ResultSet current = statement.getResultSet();
+                if (current != null) {
+                    current.close();
+                }
+                statement.clearParameters();
+                statement.clearWarnings();
+                statement.setFetchSize(0);
+            } catch (SQLException e) {
+                entries.remove(sql, this);
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                    // La conexión ya no es válida; el pool la descartará
+                }
+            }
+        }
+
+        private void evict() {
+            evicted = true;
+            if (!leased) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    System.err.println("Error al cerrar sentencia desalojada: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Vista de una sentencia cacheada durante un préstamo; close() la devuelve a la caché
+    private static final class Lease implements InvocationHandler {
+        private final Entry entry;
+        private final Connection handle;
+        private boolean closed;
+
+        private Lease(Entry entry, Connection handle) {
+            this.entry = entry;
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        entry.release();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "getConnection":
+                    return handle;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.sql + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("La sentencia ya fue cerrada");
+            }
+
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
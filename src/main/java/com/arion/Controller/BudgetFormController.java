@@ -1,8 +1,11 @@
 package com.arion.Controller;
 
 import com.arion.Model.Budget;
+import com.arion.Model.Money;
 import com.arion.Model.Transaction;
+import com.arion.Config.DataExecutor;
 import com.arion.Config.SessionManager;
+import com.arion.Utils.ViewRegistry;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -19,7 +22,7 @@ import java.util.List;
 import java.util.ResourceBundle;
 import java.util.Set;
 
-public class BudgetFormController implements Initializable {
+public class BudgetFormController implements Initializable, ViewRegistry.ReusableView {
 
     @FXML private Label titleLabel;
     @FXML private ComboBox<String> categoryComboBox;
@@ -29,7 +32,9 @@ public class BudgetFormController implements Initializable {
     @FXML private Button cancelButton;
 
     private Budget budgetToEdit;
-    private Runnable onSaveCallback;
+    // Cambia en cada reset(): lo que termina tarde de una apertura anterior (un guardado, las
+    // categorías) no toca el formulario ya reutilizado
+    private int generation;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -55,8 +60,22 @@ public class BudgetFormController implements Initializable {
         });
     }
 
-    public void setOnSaveCallback(Runnable callback) {
-        this.onSaveCallback = callback;
+    // Deja el formulario como recién cargado (ViewRegistry lo reutiliza entre aperturas)
+    @Override
+    public void reset() {
+        generation++;
+        budgetToEdit = null;
+
+        titleLabel.setText("Nuevo Presupuesto");
+        categoryComboBox.setValue(null);
+        categoryComboBox.getEditor().clear();
+        monthYearComboBox.setValue(null);
+        limitAmountField.clear();
+        saveButton.setDisable(false);
+
+        // Los meses parten del actual y las categorías pueden haber cambiado desde la última apertura
+        setupMonthYearSelector();
+        loadCategories();
     }
 
     public void setBudgetToEdit(Budget budget) {
@@ -66,7 +85,7 @@ public class BudgetFormController implements Initializable {
         // Rellenar el formulario con los datos del presupuesto
         categoryComboBox.setValue(budget.getCategory());
         monthYearComboBox.setValue(budget.getPeriodYearMonth());
-        limitAmountField.setText(String.valueOf(budget.getLimitAmount()));
+        limitAmountField.setText(budget.getLimitAmount().toString());
     }
 
     public void setupForNewBudget(YearMonth defaultMonth) {
@@ -101,30 +120,31 @@ public class BudgetFormController implements Initializable {
     }
 
     private void loadCategories() {
-        Set<String> categories = new HashSet<>();
-
-        // Obtener categorías de transacciones existentes
-        try {
-            List<Transaction> transactions = Transaction.getAll(SessionManager.getInstance().getCurrentUserId());
-            for (Transaction transaction : transactions) {
-                if (transaction.getCategory() != null && !transaction.getCategory().isEmpty()) {
-                    categories.add(transaction.getCategory());
+        // Categorías predefinidas disponibles mientras se cargan las del usuario
+        Set<String> categories = new HashSet<>(List.of(
+            "Alimentación", "Transporte", "Vivienda", "Entretenimiento", "Salud", "Educación", "Otros"));
+        categoryComboBox.setItems(FXCollections.observableArrayList(categories));
+
+        // Categorías usadas por el usuario (de la caché si ya se cargaron antes)
+        int loadGeneration = generation;
+        Transaction.getCategoriesAsync(SessionManager.getInstance().getCurrentUserId())
+            .whenCompleteAsync((userCategories, error) -> {
+                if (loadGeneration != generation) {
+                    return;
                 }
-            }
-
-            // Agregar categorías predefinidas si es necesario
-            categories.add("Alimentación");
-            categories.add("Transporte");
-            categories.add("Vivienda");
-            categories.add("Entretenimiento");
-            categories.add("Salud");
-            categories.add("Educación");
-            categories.add("Otros");
-
-            categoryComboBox.setItems(FXCollections.observableArrayList(categories));
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+                if (error != null) {
+                    error.printStackTrace();
+                    return;
+                }
+                for (String category : userCategories) {
+                    if (category != null && !category.isEmpty()) {
+                        categories.add(category);
+                    }
+                }
+                String selected = categoryComboBox.getValue();
+                categoryComboBox.setItems(FXCollections.observableArrayList(categories));
+                categoryComboBox.setValue(selected);
+            }, DataExecutor.fx());
     }
 
     private void saveButtonAction() {
@@ -136,52 +156,56 @@ public class BudgetFormController implements Initializable {
         try {
             String category = categoryComboBox.getValue();
             YearMonth yearMonth = monthYearComboBox.getValue();
-            double limitAmount = Double.parseDouble(limitAmountField.getText());
+            Money limitAmount = Money.parse(limitAmountField.getText());
 
             // Actualizar o crear presupuesto según corresponda
+            saveButton.setDisable(true);
+            int saveGeneration = generation;
             if (budgetToEdit == null) {
                 // Nuevo presupuesto
                 Budget newBudget = new Budget(category, limitAmount, yearMonth);
 
-                if (newBudget.save(SessionManager.getInstance().getCurrentUserId())) {
-                    showAlert(Alert.AlertType.INFORMATION, "Éxito", "Presupuesto guardado",
-                             "El presupuesto se ha creado correctamente.");
-
-                    if (onSaveCallback != null) {
-                        onSaveCallback.run();
-                    }
-
-                    ((Stage) saveButton.getScene().getWindow()).close();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "No se pudo guardar",
-                             "Ocurrió un error al guardar el presupuesto.");
-                }
+                newBudget.saveAsync(SessionManager.getInstance().getCurrentUserId())
+                    .whenCompleteAsync((saved, error) -> onSaveCompleted(saveGeneration, error == null && saved,
+                        "Presupuesto guardado", "El presupuesto se ha creado correctamente.",
+                        "No se pudo guardar", "Ocurrió un error al guardar el presupuesto."), DataExecutor.fx());
             } else {
                 // Actualizar presupuesto existente
                 budgetToEdit.setCategory(category);
                 budgetToEdit.setPeriodYearMonth(yearMonth);
                 budgetToEdit.setLimitAmount(limitAmount);
 
-                if (budgetToEdit.update()) {
-                    showAlert(Alert.AlertType.INFORMATION, "Éxito", "Presupuesto actualizado",
-                             "El presupuesto se ha actualizado correctamente.");
-
-                    if (onSaveCallback != null) {
-                        onSaveCallback.run();
-                    }
-
-                    ((Stage) saveButton.getScene().getWindow()).close();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "No se pudo actualizar",
-                             "Ocurrió un error al actualizar el presupuesto.");
-                }
+                budgetToEdit.updateAsync()
+                    .whenCompleteAsync((updated, error) -> onSaveCompleted(saveGeneration, error == null && updated,
+                        "Presupuesto actualizado", "El presupuesto se ha actualizado correctamente.",
+                        "No se pudo actualizar", "Ocurrió un error al actualizar el presupuesto."), DataExecutor.fx());
             }
         } catch (Exception e) {
             e.printStackTrace();
+            saveButton.setDisable(false);
             showAlert(Alert.AlertType.ERROR, "Error", "Error inesperado", e.getMessage());
         }
     }
 
+    private void onSaveCompleted(int saveGeneration, boolean success, String successHeader, String successMessage,
+                                 String errorHeader, String errorMessage) {
+        if (saveGeneration != generation) {
+            // El formulario se cerró y se volvió a abrir: solo se avisa si falló
+            if (!success) {
+                showAlert(Alert.AlertType.ERROR, "Error", errorHeader, errorMessage);
+            }
+            return;
+        }
+        saveButton.setDisable(false);
+        if (success) {
+            showAlert(Alert.AlertType.INFORMATION, "Éxito", successHeader, successMessage);
+
+            ((Stage) saveButton.getScene().getWindow()).close();
+        } else {
+            showAlert(Alert.AlertType.ERROR, "Error", errorHeader, errorMessage);
+        }
+    }
+
     private boolean validateForm() {
         StringBuilder errors = new StringBuilder();
 
@@ -197,8 +221,8 @@ public class BudgetFormController implements Initializable {
             errors.append("- El campo de límite no puede estar vacío.\n");
         } else {
             try {
-                double amount = Double.parseDouble(limitAmountField.getText());
-                if (amount <= 0) {
+                Money amount = Money.parse(limitAmountField.getText());
+                if (!amount.isPositive()) {
                     errors.append("- El límite debe ser mayor que cero.\n");
                 }
             } catch (NumberFormatException e) {
@@ -1,45 +1,48 @@
 package com.arion.Controller;
 
 import com.arion.Model.Budget;
+import com.arion.Model.DomainEvent;
+import com.arion.Model.Money;
 import com.arion.Model.Transaction;
+import com.arion.Config.DataExecutor;
+import com.arion.Config.DomainEventBus;
 import com.arion.Config.SessionManager;
 import com.arion.Utils.AlertUtils;
+import com.arion.Utils.CellStyles;
+import com.arion.Utils.LoadTracker;
+import com.arion.Utils.ScreenLoadTrace;
+import com.arion.Utils.ViewRegistry;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.control.ProgressBar;
-import javafx.scene.shape.SVGPath;
-import javafx.stage.Modality;
-import javafx.stage.Stage;
 import javafx.util.StringConverter;
 import javafx.geometry.Pos;
 
 import java.io.IOException;
 import java.net.URL;
-import java.text.DecimalFormat;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 public class BudgetViewController implements Initializable {
 
     @FXML private TableView<Budget> budgetsTable;
     @FXML private TableColumn<Budget, String> categoryCol;
-    @FXML private TableColumn<Budget, Double> limitAmountCol;
-    @FXML private TableColumn<Budget, Double> spentAmountCol;
-    @FXML private TableColumn<Budget, Double> remainingCol;
+    @FXML private TableColumn<Budget, Money> limitAmountCol;
+    @FXML private TableColumn<Budget, Money> spentAmountCol;
+    @FXML private TableColumn<Budget, Money> remainingCol;
     @FXML private TableColumn<Budget, ProgressBar> progressCol;
     @FXML private TableColumn<Budget, Budget> actionsCol;
     @FXML private Button addNewBudgetButton;
@@ -49,83 +52,87 @@ public class BudgetViewController implements Initializable {
     @FXML private Label activeBudgetsLabel;
 
     private ObservableList<Budget> budgetsList = FXCollections.observableArrayList();
-    private DecimalFormat currencyFormat = new DecimalFormat("$#,##0.00");
     private YearMonth currentYearMonth = YearMonth.now();
+    private final LoadTracker loads = new LoadTracker();
+
+    // Instantánea de la última carga: todas las columnas, etiquetas y alertas leen de aquí
+    private BudgetLoad snapshot = new BudgetLoad(List.of(), Map.of());
+
+    // Resultado de una carga: presupuestos activos y su gasto en el mes (por id)
+    private record BudgetLoad(List<Budget> budgets, Map<Integer, Money> spentByBudget) {}
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        ScreenLoadTrace.initializing();
+
+        // Cancelar las cargas pendientes al cerrar la ventana
+        loads.cancelWhenHidden(budgetsTable);
+
         // Configurar tabla de presupuestos
         setupTable();
 
         // Configurar botones
         setupButtons();
 
-        // Cargar datos
+        // Cargar datos (las alertas y el resumen se actualizan al terminar la carga)
         loadBudgets();
 
-        // Mostrar alertas de presupuestos excedidos
-        loadBudgetAlerts();
+        // Los presupuestos y su gasto cambian con cualquier presupuesto o transacción guardada
+        DomainEventBus.Subscription dataChanges = DomainEventBus.subscribe(events -> loadBudgets(),
+            DomainEvent.BudgetChanged.class, DomainEvent.TransactionCreated.class,
+            DomainEvent.TransactionUpdated.class, DomainEvent.TransactionDeleted.class,
+            DomainEvent.TransactionsImported.class);
+        LoadTracker.whenHidden(budgetsTable, dataChanges::cancel);
 
-        // Actualizar resumen
-        updateSummaryLabels();
+        // El formulario de presupuesto es lo siguiente que se suele abrir desde aquí
+        ViewRegistry.preload(ViewRegistry.BUDGET_FORM);
     }
 
     private void setupTable() {
         categoryCol.setCellValueFactory(new PropertyValueFactory<>("category"));
 
-        limitAmountCol.setCellValueFactory(cellData -> cellData.getValue().limitAmountProperty().asObject());
-        limitAmountCol.setCellFactory(col -> new TableCell<Budget, Double>() {
+        limitAmountCol.setCellValueFactory(cellData -> cellData.getValue().limitAmountProperty());
+        limitAmountCol.setCellFactory(col -> new TableCell<Budget, Money>() {
             @Override
-            protected void updateItem(Double amount, boolean empty) {
+            protected void updateItem(Money amount, boolean empty) {
                 super.updateItem(amount, empty);
                 if (empty || amount == null) {
                     setText(null);
                 } else {
-                    setText(currencyFormat.format(amount));
+                    setText(amount.format());
                 }
             }
         });
 
         spentAmountCol.setCellValueFactory(cellData -> {
-            Budget budget = cellData.getValue();
-            double spent = Budget.getSpentAmountForCategoryInMonth(
-                SessionManager.getInstance().getCurrentUserId(),
-                budget.getCategory(),
-                budget.getPeriodYearMonth()
-            );
-            return new ReadOnlyObjectWrapper<>(spent);
+            return new ReadOnlyObjectWrapper<>(getSpent(cellData.getValue()));
         });
-        spentAmountCol.setCellFactory(col -> new TableCell<Budget, Double>() {
+        spentAmountCol.setCellFactory(col -> new TableCell<Budget, Money>() {
             @Override
-            protected void updateItem(Double spent, boolean empty) {
+            protected void updateItem(Money spent, boolean empty) {
                 super.updateItem(spent, empty);
                 if (empty || spent == null) {
                     setText(null);
                 } else {
-                    setText(currencyFormat.format(spent));
+                    setText(spent.format());
                 }
             }
         });
 
         remainingCol.setCellValueFactory(cellData -> {
             Budget budget = cellData.getValue();
-            double spent = Budget.getSpentAmountForCategoryInMonth(
-                SessionManager.getInstance().getCurrentUserId(),
-                budget.getCategory(),
-                budget.getPeriodYearMonth()
-            );
-            double remaining = budget.getLimitAmount() - spent;
+            Money remaining = budget.getLimitAmount().minus(getSpent(budget));
             return new ReadOnlyObjectWrapper<>(remaining);
         });
-        remainingCol.setCellFactory(col -> new TableCell<Budget, Double>() {
+        remainingCol.setCellFactory(col -> new TableCell<Budget, Money>() {
             @Override
-            protected void updateItem(Double remaining, boolean empty) {
+            protected void updateItem(Money remaining, boolean empty) {
                 super.updateItem(remaining, empty);
                 if (empty || remaining == null) {
                     setText(null);
                 } else {
-                    setText(currencyFormat.format(remaining));
-                    if (remaining < 0) {
+                    setText(remaining.format());
+                    if (remaining.isNegative()) {
                         setStyle("-fx-text-fill: red;");
                     } else {
                         setStyle("-fx-text-fill: green;");
@@ -136,12 +143,7 @@ public class BudgetViewController implements Initializable {
 
         progressCol.setCellValueFactory(cellData -> {
             Budget budget = cellData.getValue();
-            double spent = Budget.getSpentAmountForCategoryInMonth(
-                SessionManager.getInstance().getCurrentUserId(),
-                budget.getCategory(),
-                budget.getPeriodYearMonth()
-            );
-            double percentage = spent / budget.getLimitAmount();
+            double percentage = getSpent(budget).ratioTo(budget.getLimitAmount());
 
             ProgressBar progressBar = new ProgressBar(percentage);
             progressBar.setPrefWidth(140);
@@ -170,8 +172,8 @@ public class BudgetViewController implements Initializable {
 
         actionsCol.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue()));
         actionsCol.setCellFactory(col -> new TableCell<Budget, Budget>() {
-            private final Button editBtn = createIconButton("M3 17.25V21h3.75L17.81 9.94l-3.75-3.75L3 17.25zM20.71 7.04c.39-.39.39-1.02 0-1.41l-2.34-2.34c-.39-.39-1.02-.39-1.41 0l-1.83 1.83 3.75 3.75 1.83-1.83z", "button-icon-edit");
-            private final Button deleteBtn = createIconButton("M6 19c0 1.1.9 2 2 2h8c1.1 0 2-.9 2-2V7H6v12zM19 4h-3.5l-1-1h-5l-1 1H5v2h14V4z", "button-icon-delete");
+            private final Button editBtn = CellStyles.iconButton("icon-edit", "button-icon-edit", "Editar presupuesto");
+            private final Button deleteBtn = CellStyles.iconButton("icon-delete", "button-icon-delete", "Eliminar presupuesto");
             private final HBox pane = new HBox(10, editBtn, deleteBtn);
 
             {
@@ -207,34 +209,49 @@ public class BudgetViewController implements Initializable {
     }
 
     private void loadBudgets() {
-        budgetsList.clear();
         int userId = SessionManager.getInstance().getCurrentUserId();
+        budgetsTable.setPlaceholder(new ProgressIndicator());
+
+        // Obtenemos todos los presupuestos activos y, con una sola consulta, su gasto
+        CompletableFuture<BudgetLoad> load = Budget.getAllActiveAsync(userId).thenApplyAsync(
+            budgets -> new BudgetLoad(budgets, Budget.spentByBudget(userId, budgets)),
+            DataExecutor.background());
+
+        loads.track("budgets", load, result -> {
+            snapshot = result;
+            budgetsList.setAll(result.budgets());
+            budgetsTable.setPlaceholder(new Label("No hay presupuestos activos"));
+            loadBudgetAlerts();
+            updateSummaryLabels();
+        });
+    }
 
-        // Obtenemos todos los presupuestos activos
-        for (Budget budget : Budget.getAllActive(userId)) {
-            budgetsList.add(budget);
-        }
+    private Money getSpent(Budget budget) {
+        return snapshot.spentByBudget().getOrDefault(budget.getId(), Money.ZERO);
     }
 
+    // Las alertas se calculan con la instantánea ya cargada, sin consultas adicionales
     private void loadBudgetAlerts() {
         alertsListView.getItems().clear();
-        List<Budget> exceededBudgets = Budget.getExceededBudgets(SessionManager.getInstance().getCurrentUserId());
+
+        List<Budget> exceededBudgets = new ArrayList<>();
+        for (Budget budget : snapshot.budgets()) {
+            if (currentYearMonth.equals(budget.getPeriodYearMonth()) && getSpent(budget).isGreaterThan(budget.getLimitAmount())) {
+                exceededBudgets.add(budget);
+            }
+        }
 
         if (exceededBudgets.isEmpty()) {
             alertsListView.getItems().add("No hay presupuestos excedidos.");
         } else {
             for (Budget budget : exceededBudgets) {
-                double spent = Budget.getSpentAmountForCategoryInMonth(
-                    SessionManager.getInstance().getCurrentUserId(),
-                    budget.getCategory(),
-                    budget.getPeriodYearMonth()
-                );
-                double exceeded = spent - budget.getLimitAmount();
+                Money spent = getSpent(budget);
+                Money exceeded = spent.minus(budget.getLimitAmount());
                 String alert = String.format(
                     "¡ALERTA! Has excedido tu presupuesto en %s por %s (%.1f%% del límite)",
                     budget.getCategory(),
-                    currencyFormat.format(exceeded),
-                    (spent / budget.getLimitAmount() * 100)
+                    exceeded.format(),
+                    spent.ratioTo(budget.getLimitAmount()) * 100
                 );
                 alertsListView.getItems().add(alert);
             }
@@ -243,27 +260,16 @@ public class BudgetViewController implements Initializable {
 
     private void showBudgetForm(Budget budget) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Fxml/BudgetFormView.fxml"));
-            Parent root = loader.load();
-
-            BudgetFormController controller = loader.getController();
-            controller.setOnSaveCallback(() -> {
-                loadBudgets();
-                loadBudgetAlerts();
-                updateSummaryLabels();
-            });
+            ViewRegistry.View<BudgetFormController> form = ViewRegistry.form(ViewRegistry.BUDGET_FORM);
 
+            BudgetFormController controller = form.controller();
             if (budget != null) {
                 controller.setBudgetToEdit(budget);
             } else {
                 controller.setupForNewBudget(currentYearMonth);
             }
 
-            Stage stage = new Stage();
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.setTitle(budget == null ? "Nuevo Presupuesto" : "Editar Presupuesto");
-            stage.setScene(new Scene(root));
-            stage.showAndWait();
+            form.dialog(budget == null ? "Nuevo Presupuesto" : "Editar Presupuesto").showAndWait();
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -274,53 +280,29 @@ public class BudgetViewController implements Initializable {
     private void confirmAndDeleteBudget(Budget budget) {
         if (AlertUtils.showConfirmationAlert("Confirmar eliminación",
             "¿Estás seguro que deseas eliminar este presupuesto?\nEsta acción no se puede deshacer.")) {
-            if (budget.delete()) {
-                loadBudgets();
-                loadBudgetAlerts();
-                updateSummaryLabels();
-                AlertUtils.showSuccessAlert("Éxito", "Presupuesto eliminado correctamente");
-            } else {
-                AlertUtils.showErrorAlert("Error", "No se pudo eliminar el presupuesto. Ocurrió un error al intentar eliminar el presupuesto.");
-            }
-        }
-    }
-
-    private Button createIconButton(String iconPath, String styleClass) {
-        Button button = new Button();
-        SVGPath icon = new SVGPath();
-        icon.setContent(iconPath);
-        icon.getStyleClass().add("icon");
-        button.setGraphic(icon);
-        button.getStyleClass().addAll("button-icon", styleClass);
-
-        // Agregar tooltip
-        if (styleClass.contains("edit")) {
-            Tooltip tooltip = new Tooltip("Editar presupuesto");
-            button.setTooltip(tooltip);
-        } else if (styleClass.contains("delete")) {
-            Tooltip tooltip = new Tooltip("Eliminar presupuesto");
-            button.setTooltip(tooltip);
+            budget.deleteAsync().whenCompleteAsync((deleted, error) -> {
+                if (error == null && deleted) {
+                    AlertUtils.showSuccessAlert("Éxito", "Presupuesto eliminado correctamente");
+                } else {
+                    AlertUtils.showErrorAlert("Error", "No se pudo eliminar el presupuesto. Ocurrió un error al intentar eliminar el presupuesto.");
+                }
+            }, DataExecutor.fx());
         }
-
-        return button;
     }
 
     private void updateSummaryLabels() {
-        double totalBudgeted = 0;
-        double totalSpent = 0;
+        // Sumas exactas en centavos
+        long totalBudgeted = 0;
+        long totalSpent = 0;
         int activeBudgets = budgetsList.size();
 
         for (Budget budget : budgetsList) {
-            totalBudgeted += budget.getLimitAmount();
-            totalSpent += Budget.getSpentAmountForCategoryInMonth(
-                SessionManager.getInstance().getCurrentUserId(),
-                budget.getCategory(),
-                budget.getPeriodYearMonth()
-            );
+            totalBudgeted += budget.getLimitAmount().cents();
+            totalSpent += getSpent(budget).cents();
         }
 
-        totalBudgetedLabel.setText(currencyFormat.format(totalBudgeted));
-        totalSpentLabel.setText(currencyFormat.format(totalSpent));
+        totalBudgetedLabel.setText(Money.ofCents(totalBudgeted).format());
+        totalSpentLabel.setText(Money.ofCents(totalSpent).format());
         activeBudgetsLabel.setText(String.valueOf(activeBudgets));
     }
 }
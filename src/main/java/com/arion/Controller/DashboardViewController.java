@@ -1,35 +1,39 @@
 package com.arion.Controller;
 
+import com.arion.Model.DashboardSnapshot;
+import com.arion.Model.Money;
 import com.arion.Model.Transaction;
 import com.arion.Model.Budget;
+import com.arion.Model.DomainEvent;
+import com.arion.Model.TransactionTotals;
+import com.arion.Config.DomainEventBus;
 import com.arion.Config.SessionManager;
+import com.arion.Utils.LoadTracker;
+import com.arion.Utils.ScreenLoadTrace;
+import com.arion.Utils.ViewRegistry;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
-import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.chart.PieChart;
 import javafx.scene.control.Label;
-import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.scene.control.Button;
-import javafx.scene.layout.HBox;
-import javafx.scene.layout.VBox;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import java.io.IOException;
 import java.net.URL;
-import java.text.DecimalFormat;
 import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
 public class DashboardViewController implements Initializable {
 
@@ -41,18 +45,45 @@ public class DashboardViewController implements Initializable {
     @FXML private Label usernameLabel;
     @FXML private Button budgetsButton;
 
-    private ObservableList<Transaction> transactions;
-    private DecimalFormat currencyFormat = new DecimalFormat("$#,##0.00");
+    private final ObservableList<Transaction> transactions = FXCollections.observableArrayList();
+    private final LoadTracker loads = new LoadTracker();
+    private DomainEventBus.Subscription dataChanges;
+    // Totales y gastos por categoría mostrados (totals es null hasta la primera carga);
+    // los eventos los ajustan sin volver a consultar
+    private TransactionTotals totals;
+    private final Map<String, Money> expensesByCategory = new LinkedHashMap<>();
+
+    // Transacciones recientes que muestra la lista del dashboard, en el orden de la consulta
+    private static final int RECENT_LIMIT = 10;
+    private static final Comparator<Transaction> RECENT_ORDER =
+        Comparator.comparing(Transaction::getDate).thenComparingInt(Transaction::getId).reversed();
+    private static final String NO_EXPENSES = "Sin gastos";
+
+    // Empieza a leer los datos del dashboard antes de cargar la vista (al iniciar sesión), así la
+    // consulta corre en paralelo con la construcción de la escena
+    public static void prefetch(int userId) {
+        DashboardSnapshot.prefetch(userId, RECENT_LIMIT);
+    }
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        loadUserData();
-        setupPieChart();
+        ScreenLoadTrace.initializing();
+
         setupTransactionList();
-        updateSummaryLabels();
+        setupPieChart();
+        loadUserData();
+
+        // Cualquier cambio de transacciones (desde aquí, reportes o una importación) se aplica al
+        // dashboard una sola vez por ráfaga de eventos
+        dataChanges = DomainEventBus.subscribe(this::applyChanges,
+            DomainEvent.TransactionCreated.class, DomainEvent.TransactionUpdated.class,
+            DomainEvent.TransactionDeleted.class, DomainEvent.TransactionsImported.class);
 
         // Configurar el botón de presupuestos
         budgetsButton.setOnAction(event -> openBudgetManager());
+
+        // Agregar ingreso o gasto es lo siguiente que se suele abrir desde aquí
+        ViewRegistry.preload(ViewRegistry.TRANSACTION_FORM);
     }
 
     private void loadUserData() {
@@ -61,51 +92,159 @@ public class DashboardViewController implements Initializable {
             usernameLabel.setText("Bienvenido, " + SessionManager.getInstance().getCurrentUsername());
         }
 
-        // Cargar transacciones del usuario actual
         int currentUserId = SessionManager.getInstance().getCurrentUserId();
-        if (currentUserId > 0) {
-            List<Transaction> userTransactions = Transaction.getRecentTransactionsByUser(currentUserId, 10);
-            transactions = FXCollections.observableArrayList(userTransactions);
-        } else {
-            transactions = FXCollections.observableArrayList();
+        if (currentUserId <= 0) {
+            totals = null;
+            expensesByCategory.clear();
+            transactions.clear();
+            expensesPieChart.setData(FXCollections.observableArrayList());
+            showSummary(Money.ZERO, Money.ZERO);
+            return;
         }
+
+        transactionsListView.setPlaceholder(new Label("Cargando transacciones..."));
+        expensesPieChart.setTitle("Cargando...");
+        totalIncomeLabel.setText("Cargando...");
+        totalExpensesLabel.setText("Cargando...");
+        netBalanceLabel.setText("Cargando...");
+
+        // Recientes, totales y gastos por categoría en una sola consulta
+        loads.track("dashboard", DashboardSnapshot.loadAsync(currentUserId, RECENT_LIMIT), snapshot -> {
+            transactions.setAll(snapshot.recentTransactions());
+            transactionsListView.setPlaceholder(new Label("No hay transacciones"));
+            expensesByCategory.clear();
+            expensesByCategory.putAll(snapshot.expensesByCategory());
+            showPieChart(expensesByCategory);
+            totals = new TransactionTotals(snapshot.totalIncome(), snapshot.totalExpenses());
+            showSummary(totals.income(), totals.expenses());
+        });
     }
 
-    private void setupPieChart() {
+    // Aplica los eventos como diferencias sobre totales, gráfico y recientes. Recarga si hay una
+    // importación, una carga en curso (que puede incluir o no el cambio) o si un borrado deja
+    // un hueco en la lista de recientes que solo la base puede llenar.
+    private void applyChanges(List<DomainEvent> events) {
+        if (!TransactionTotals.isIncremental(events) || totals == null || loads.isLoading("dashboard")) {
+            refreshData();
+            return;
+        }
+
         int currentUserId = SessionManager.getInstance().getCurrentUserId();
-        if (currentUserId <= 0) {
-            expensesPieChart.setData(FXCollections.observableArrayList());
+        for (DomainEvent event : events) {
+            if (event.userId() != currentUserId) {
+                continue;
+            }
+            if (!applyToRecent(event)) {
+                refreshData();
+                return;
+            }
+            totals = totals.apply(event);
+            TransactionTotals.applyToExpensesByCategory(expensesByCategory, event);
+        }
+
+        showSummary(totals.income(), totals.expenses());
+        updatePieChart();
+    }
+
+    // false si la lista de recientes quedó incompleta y hay que recargarla
+    private boolean applyToRecent(DomainEvent event) {
+        boolean full = transactions.size() >= RECENT_LIMIT;
+        switch (event) {
+            case DomainEvent.TransactionCreated created -> insertRecent(created.transaction());
+            case DomainEvent.TransactionUpdated updated -> {
+                // La fila que se muestra recibe los valores guardados y vuelve a su posición
+                Transaction transaction = updated.transaction();
+                int index = indexOfRecent(transaction.getId());
+                if (index >= 0) {
+                    transaction = transactions.remove(index);
+                    transaction.copyValuesFrom(updated.transaction());
+                }
+                insertRecent(transaction);
+            }
+            case DomainEvent.TransactionDeleted deleted -> {
+                int index = indexOfRecent(deleted.transaction().getId());
+                if (index >= 0) {
+                    transactions.remove(index);
+                }
+            }
+            default -> {
+            }
+        }
+        return !full || transactions.size() >= RECENT_LIMIT;
+    }
+
+    // Inserta en orden y descarta la más antigua si la lista pasa del límite
+    private void insertRecent(Transaction transaction) {
+        int index = Collections.binarySearch(transactions, transaction, RECENT_ORDER);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        if (index >= RECENT_LIMIT) {
             return;
         }
+        transactions.add(index, transaction);
+        if (transactions.size() > RECENT_LIMIT) {
+            transactions.remove(RECENT_LIMIT);
+        }
+    }
 
-        // Obtener todas las transacciones del usuario para el gráfico
-        List<Transaction> allTransactions = Transaction.getTransactionsByUser(currentUserId);
+    private int indexOfRecent(int transactionId) {
+        for (int i = 0; i < transactions.size(); i++) {
+            if (transactions.get(i).getId() == transactionId) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
-        // Filtrar solo gastos y agrupar por categoría
-        Map<String, Double> expensesByCategory = allTransactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.EXPENSE)
-                .collect(Collectors.groupingBy(
-                    Transaction::getCategory,
-                    Collectors.summingDouble(Transaction::getAmount)
-                ));
+    private void setupPieChart() {
+        expensesPieChart.setTitle(null);
+        expensesPieChart.setMinSize(PieChart.USE_PREF_SIZE, PieChart.USE_PREF_SIZE);
+        expensesPieChart.setPrefSize(500, 400);
+        expensesPieChart.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        expensesPieChart.setLabelsVisible(true);
+    }
 
+    private void showPieChart(Map<String, Money> expensesByCategory) {
         // Crear datos para el gráfico de pastel
         ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
 
         if (expensesByCategory.isEmpty()) {
-            pieChartData.add(new PieChart.Data("Sin gastos", 1));
+            pieChartData.add(new PieChart.Data(NO_EXPENSES, 1));
         } else {
             expensesByCategory.forEach((category, amount) ->
-                pieChartData.add(new PieChart.Data(category, amount))
+                pieChartData.add(new PieChart.Data(category, amount.toDouble()))
             );
         }
 
-        expensesPieChart.setData(pieChartData);
         expensesPieChart.setTitle(null);
-        expensesPieChart.setMinSize(PieChart.USE_PREF_SIZE, PieChart.USE_PREF_SIZE);
-        expensesPieChart.setPrefSize(500, 400);
-        expensesPieChart.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
-        expensesPieChart.setLabelsVisible(true);
+        expensesPieChart.setData(pieChartData);
+    }
+
+    // Ajusta las porciones existentes en lugar de reemplazar los datos, así el gráfico solo
+    // anima las que cambiaron
+    private void updatePieChart() {
+        ObservableList<PieChart.Data> data = expensesPieChart.getData();
+        boolean showingPlaceholder = data == null
+            || (data.size() == 1 && NO_EXPENSES.equals(data.get(0).getName()));
+        if (expensesByCategory.isEmpty() || showingPlaceholder) {
+            showPieChart(expensesByCategory);
+            return;
+        }
+
+        data.removeIf(slice -> !expensesByCategory.containsKey(slice.getName()));
+        Map<String, PieChart.Data> slices = new HashMap<>();
+        for (PieChart.Data slice : data) {
+            slices.put(slice.getName(), slice);
+        }
+        expensesByCategory.forEach((category, amount) -> {
+            PieChart.Data slice = slices.get(category);
+            if (slice == null) {
+                data.add(new PieChart.Data(category, amount.toDouble()));
+            } else if (slice.getPieValue() != amount.toDouble()) {
+                slice.setPieValue(amount.toDouble());
+            }
+        });
     }
 
     private void setupTransactionList() {
@@ -119,66 +258,19 @@ public class DashboardViewController implements Initializable {
             }
         });
 
-        // Celda personalizada para mostrar cada transacción
-        transactionsListView.setCellFactory(param -> new ListCell<>() {
-            @Override
-            protected void updateItem(Transaction item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty || item == null) {
-                    setText(null);
-                    setGraphic(null);
-                } else {
-                    HBox hbox = new HBox(10);
-                    hbox.setAlignment(Pos.CENTER_LEFT);
-
-                    VBox descriptionBox = new VBox();
-                    Label categoryLabel = new Label(item.getCategory());
-                    categoryLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
-
-                    Label dateLabel = new Label(item.getDateString());
-                    dateLabel.setFont(Font.font("Arial", 12));
-                    dateLabel.setStyle("-fx-text-fill: #666666;");
-
-                    descriptionBox.getChildren().addAll(categoryLabel, dateLabel);
-
-                    Label amountLabel = new Label(currencyFormat.format(item.getAmount()));
-                    amountLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
-
-                    // Color basado en el tipo de transacción
-                    if (item.getType() == Transaction.TransactionType.INCOME) {
-                        amountLabel.setStyle("-fx-text-fill: #4CAF50;"); // Verde para ingresos
-                    } else {
-                        amountLabel.setStyle("-fx-text-fill: #F44336;"); // Rojo para gastos
-                    }
-
-                    hbox.getChildren().addAll(descriptionBox, amountLabel);
-                    HBox.setHgrow(descriptionBox, javafx.scene.layout.Priority.ALWAYS);
-
-                    setGraphic(hbox);
-                }
-            }
-        });
+        // Celda personalizada para mostrar cada transacción (reutiliza sus nodos al desplazarse)
+        transactionsListView.setCellFactory(param -> new TransactionListCell());
     }
 
-    private void updateSummaryLabels() {
-        int currentUserId = SessionManager.getInstance().getCurrentUserId();
-        if (currentUserId <= 0) {
-            totalIncomeLabel.setText("$0.00");
-            totalExpensesLabel.setText("$0.00");
-            netBalanceLabel.setText("$0.00");
-            return;
-        }
-
-        double totalIncome = Transaction.getTotalIncome(currentUserId);
-        double totalExpenses = Transaction.getTotalExpenses(currentUserId);
-        double netBalance = totalIncome - totalExpenses;
+    private void showSummary(Money totalIncome, Money totalExpenses) {
+        Money netBalance = totalIncome.minus(totalExpenses);
 
-        totalIncomeLabel.setText(currencyFormat.format(totalIncome));
-        totalExpensesLabel.setText(currencyFormat.format(totalExpenses));
-        netBalanceLabel.setText(currencyFormat.format(netBalance));
+        totalIncomeLabel.setText(totalIncome.format());
+        totalExpensesLabel.setText(totalExpenses.format());
+        netBalanceLabel.setText(netBalance.format());
 
         // Cambiar color del balance neto según si es positivo o negativo
-        if (netBalance >= 0) {
+        if (!netBalance.isNegative()) {
             netBalanceLabel.setStyle("-fx-text-fill: #4CAF50;"); // Verde para positivo
         } else {
             netBalanceLabel.setStyle("-fx-text-fill: #F44336;"); // Rojo para negativo
@@ -188,50 +280,22 @@ public class DashboardViewController implements Initializable {
     // Método para refrescar los datos (útil cuando se agrega una nueva transacción)
     public void refreshData() {
         loadUserData();
-        setupPieChart();
-        transactionsListView.setItems(transactions);
-        updateSummaryLabels();
     }
 
     @FXML
     private void openTransactionForm() {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Fxml/TransactionFormView.fxml"));
-            Parent root = loader.load();
-
-            // Obtener el controlador del formulario
-            TransactionFormController controller = loader.getController();
-
-            // Configurar callback para refrescar datos cuando se guarde una transacción
-            controller.setOnTransactionSaved(this::refreshData);
-
-            Stage stage = new Stage();
-            stage.setTitle("Nueva Transacción");
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.setScene(new Scene(root));
-            stage.setResizable(false);
-            stage.showAndWait();
-
-        } catch (IOException e) {
-            System.err.println("Error al cargar formulario de transacción: " + e.getMessage());
-            e.printStackTrace();
-        }
+        showTransactionForm("Nueva Transacción", controller -> {});
     }
 
     @FXML
     private void openReports() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Fxml/ReportsView.fxml"));
-            Parent root = loader.load();
-
-            // Obtener el controlador de reportes y pasarle una referencia de este dashboard
-            ReportsViewController reportsController = loader.getController();
-            reportsController.setDashboardRefreshCallback(this::refreshData);
+            ViewRegistry.View<ReportsViewController> reports = ViewRegistry.load(ViewRegistry.REPORTS);
 
             Stage stage = new Stage();
             stage.setTitle("Reportes");
             stage.initModality(Modality.APPLICATION_MODAL);
-            stage.setScene(new Scene(root, 800, 600));
+            stage.setScene(new Scene(reports.root(), 800, 600));
             stage.showAndWait();
 
         } catch (IOException e) {
@@ -242,11 +306,12 @@ public class DashboardViewController implements Initializable {
 
     @FXML
     private void logout() {
+        loads.cancelAll();
+        dataChanges.cancel();
         SessionManager.getInstance().logout();
 
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Fxml/LoginView.fxml"));
-            Parent root = loader.load();
+            Parent root = ViewRegistry.load(ViewRegistry.LOGIN).root();
 
             Stage stage = (Stage) totalIncomeLabel.getScene().getWindow();
             stage.setScene(new Scene(root));
@@ -274,55 +339,27 @@ public class DashboardViewController implements Initializable {
     }
 
     private void openTransactionFormWithType(TransactionFormController.FormType formType) {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Fxml/TransactionFormView.fxml"));
-            Parent root = loader.load();
-
-            // Obtener el controlador del formulario
-            TransactionFormController controller = loader.getController();
-
-            // Configurar el tipo de formulario (Ingreso o Gasto)
-            controller.configureFor(formType);
-
-            // Configurar callback para refrescar datos cuando se guarde una transacción
-            controller.setOnTransactionSaved(this::refreshData);
-
-            Stage stage = new Stage();
-            stage.setTitle(formType == TransactionFormController.FormType.INCOME ? "Agregar Ingreso" : "Agregar Gasto");
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.setScene(new Scene(root));
-            stage.setResizable(false);
-            stage.showAndWait();
-
-        } catch (IOException e) {
-            System.err.println("Error al cargar formulario de transacción: " + e.getMessage());
-            e.printStackTrace();
-        }
+        showTransactionForm(formType == TransactionFormController.FormType.INCOME ? "Agregar Ingreso" : "Agregar Gasto",
+                            controller -> controller.configureFor(formType));
     }
 
     private void openEditTransactionForm(Transaction transaction) {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Fxml/TransactionFormView.fxml"));
-            Parent root = loader.load();
-
-            // Obtener el controlador del formulario
-            TransactionFormController controller = loader.getController();
+        showTransactionForm("Editar Transacción", controller -> controller.configureForEdit(transaction));
+    }
 
-            // Configurar el formulario para edición
-            controller.configureForEdit(transaction);
+    // Abre el formulario de transacción (reutilizado entre aperturas)
+    private void showTransactionForm(String title, Consumer<TransactionFormController> setup) {
+        try {
+            ViewRegistry.View<TransactionFormController> form = ViewRegistry.form(ViewRegistry.TRANSACTION_FORM);
 
-            // Configurar callback para refrescar datos cuando se guarde la transacción editada
-            controller.setOnTransactionSaved(this::refreshData);
+            setup.accept(form.controller());
 
-            Stage stage = new Stage();
-            stage.setTitle("Editar Transacción");
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.setScene(new Scene(root));
+            Stage stage = form.dialog(title);
             stage.setResizable(false);
             stage.showAndWait();
 
         } catch (IOException e) {
-            System.err.println("Error al cargar formulario de edición de transacción: " + e.getMessage());
+            System.err.println("Error al cargar formulario de transacción: " + e.getMessage());
             e.printStackTrace();
         }
     }
@@ -330,11 +367,7 @@ public class DashboardViewController implements Initializable {
     // Método para abrir el gestor de presupuestos
     private void openBudgetManager() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Fxml/BudgetView.fxml"));
-            Parent root = loader.load();
-
-            // Obtener el controlador para configurarlo si es necesario
-            BudgetViewController controller = loader.getController();
+            Parent root = ViewRegistry.load(ViewRegistry.BUDGETS).root();
 
             // Abrir en una nueva ventana
             Stage stage = new Stage();
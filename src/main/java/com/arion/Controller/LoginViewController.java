@@ -1,10 +1,13 @@
 package com.arion.Controller;
 
 import com.arion.Model.User;
+import com.arion.Config.DataExecutor;
 import com.arion.Config.SessionManager;
+import com.arion.Utils.ScreenLoadTrace;
+import com.arion.Utils.StartupWarmup;
+import com.arion.Utils.ViewRegistry;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -48,6 +51,11 @@ public class LoginViewController {
 
     @FXML
     private void initialize() {
+        ScreenLoadTrace.initializing();
+
+        // Mientras se escriben las credenciales: conexiones, clases del dashboard y OpenPDF
+        StartupWarmup.start();
+
         // Sincroniza los campos de contraseña
         if (passwordField != null && visiblePasswordField != null) {
             passwordField.textProperty().addListener((observable, oldValue, newValue) ->
@@ -91,27 +99,34 @@ public class LoginViewController {
         System.out.println("Intentando autenticar usuario: " + username);
         System.out.println("Contraseña ingresada (longitud): " + password.length());
 
-        // Autenticar usuario
-        User user = User.authenticate(username, password);
+        // Autenticar usuario en segundo plano; el botón queda deshabilitado mientras tanto
+        Node source = (Node) event.getSource();
+        source.setDisable(true);
 
-        if (user != null) {
-            System.out.println("Usuario autenticado exitosamente: " + user.getUsername());
-            // Guardar usuario en sesión
-            SessionManager.getInstance().setCurrentUser(user);
+        User.authenticateAsync(username, password).whenCompleteAsync((user, error) -> {
+            source.setDisable(false);
 
-            // Navegar al dashboard
-            navigateToDashboard(event);
-        } else {
-            System.out.println("Falló la autenticación para usuario: " + username);
-            showAlert("Error de autenticación", "Usuario o contraseña incorrectos");
-        }
+            if (error == null && user != null) {
+                System.out.println("Usuario autenticado exitosamente: " + user.getUsername());
+                // Guardar usuario en sesión
+                SessionManager.getInstance().setCurrentUser(user);
+
+                // Los datos del dashboard se leen mientras se construye su escena
+                DashboardViewController.prefetch(user.getId());
+
+                // Navegar al dashboard
+                navigateToDashboard(event);
+            } else {
+                System.out.println("Falló la autenticación para usuario: " + username);
+                showAlert("Error de autenticación", "Usuario o contraseña incorrectos");
+            }
+        }, DataExecutor.fx());
     }
 
     private void navigateToDashboard(ActionEvent event) {
         try {
             // Carga el nuevo FXML
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Fxml/DashboardView.fxml"));
-            Parent nuevaEscena = loader.load();
+            Parent nuevaEscena = ViewRegistry.load(ViewRegistry.DASHBOARD).root();
 
             // Obtiene la ventana actual
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
@@ -144,9 +159,8 @@ public class LoginViewController {
     @FXML
     private void RegisterView(ActionEvent event) {
         try {
-            // Carga el nuevo FXML con un nuevo loader cada vez
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Fxml/RegisterView.fxml"));
-            Parent nuevaEscena = loader.load();
+            // Carga el nuevo FXML
+            Parent nuevaEscena = ViewRegistry.load(ViewRegistry.REGISTER).root();
 
             // Obtiene la ventana actual
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
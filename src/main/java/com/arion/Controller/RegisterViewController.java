@@ -1,10 +1,12 @@
 package com.arion.Controller;
 
 import com.arion.Model.User;
+import com.arion.Config.DataExecutor;
 import com.arion.Config.SessionManager;
+import com.arion.Utils.ScreenLoadTrace;
+import com.arion.Utils.ViewRegistry;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -49,6 +51,8 @@ public class RegisterViewController {
 
     @FXML
     private void initialize() {
+        ScreenLoadTrace.initializing();
+
         // Sincroniza los campos de contraseña
         passwordField.textProperty().addListener((obs, oldVal, newVal) -> visiblePasswordField.setText(newVal));
         visiblePasswordField.textProperty().addListener((obs, oldVal, newVal) -> passwordField.setText(newVal));
@@ -92,30 +96,36 @@ public class RegisterViewController {
         // Crear nuevo usuario con los datos del formulario
         User newUser = new User(nameField.getText().trim(), passwordField.getText(), emailField.getText().trim());
 
-        // Intentar registrar el usuario
-        if (newUser.register()) {
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Registro exitoso");
-            alert.setHeaderText(null);
-            alert.setContentText("Usuario registrado correctamente.");
-            alert.showAndWait();
-
-            // Redirigir al login después del registro exitoso
-            LoginView(event);
-        } else {
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setTitle("Error en el registro");
-            alert.setHeaderText(null);
-            alert.setContentText("No se pudo registrar el usuario. El nombre de usuario ya existe o hubo un error en la base de datos.");
-            alert.showAndWait();
-        }
+        // Intentar registrar el usuario en segundo plano
+        Node source = (Node) event.getSource();
+        source.setDisable(true);
+
+        newUser.registerAsync().whenCompleteAsync((registered, error) -> {
+            source.setDisable(false);
+
+            if (error == null && registered) {
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Registro exitoso");
+                alert.setHeaderText(null);
+                alert.setContentText("Usuario registrado correctamente.");
+                alert.showAndWait();
+
+                // Redirigir al login después del registro exitoso
+                LoginView(event);
+            } else {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Error en el registro");
+                alert.setHeaderText(null);
+                alert.setContentText("No se pudo registrar el usuario. El nombre de usuario ya existe o hubo un error en la base de datos.");
+                alert.showAndWait();
+            }
+        }, DataExecutor.fx());
     }
 
     @FXML
     private void LoginView(ActionEvent event) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Fxml/LoginView.fxml"));
-            Parent nuevaEscena = loader.load();
+            Parent nuevaEscena = ViewRegistry.load(ViewRegistry.LOGIN).root();
 
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
             Rectangle2D screenBounds = Screen.getPrimary().getVisualBounds();
@@ -1,42 +1,49 @@
 package com.arion.Controller;
 
+import com.arion.Model.DomainEvent;
+import com.arion.Model.Money;
 import com.arion.Model.Transaction;
+import com.arion.Model.TransactionImport;
+import com.arion.Model.TransactionTotals;
+import com.arion.Config.DataExecutor;
+import com.arion.Config.DomainEventBus;
 import com.arion.Config.SessionManager;
 import com.arion.Utils.AlertUtils;
+import com.arion.Utils.CellStyles;
+import com.arion.Utils.LoadTracker;
+import com.arion.Utils.PdfExportTask;
+import com.arion.Utils.TransactionImportTask;
+import com.arion.Utils.ScreenLoadTrace;
+import com.arion.Utils.ViewRegistry;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
-import javafx.collections.transformation.SortedList;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+import javafx.event.EventHandler;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.geometry.Pos;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.control.skin.VirtualFlow;
 import javafx.scene.layout.HBox;
-import javafx.scene.shape.SVGPath;
 import javafx.stage.FileChooser;
-import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
+import javafx.util.Duration;
 
-// Importaciones para OpenPDF (reemplazar iText)
-import com.lowagie.text.*;
-import com.lowagie.text.pdf.PdfPCell;
-import com.lowagie.text.pdf.PdfPTable;
-import com.lowagie.text.pdf.PdfWriter;
-import java.awt.Color;
-
-import java.io.FileOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
-import java.text.DecimalFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class ReportsViewController implements Initializable {
 
@@ -44,36 +51,273 @@ public class ReportsViewController implements Initializable {
     @FXML private TableColumn<Transaction, String> descriptionCol;
     @FXML private TableColumn<Transaction, String> categoryCol;
     @FXML private TableColumn<Transaction, LocalDate> dateCol;
-    @FXML private TableColumn<Transaction, Double> amountCol;
+    @FXML private TableColumn<Transaction, Money> amountCol;
     @FXML private TableColumn<Transaction, Void> actionsCol;
     @FXML private TextField filterField;
     @FXML private Label totalIncomeLabel;
     @FXML private Label totalExpensesLabel;
     @FXML private Label netBalanceLabel;
-
+    @FXML private Button downloadButton;
+    @FXML private Button importButton;
+    @FXML private HBox exportProgressBox;
+    @FXML private ProgressBar exportProgressBar;
+    @FXML private Label exportStatusLabel;
+
+    // Errores de línea que se muestran al terminar una importación
+    private static final int MAX_SHOWN_IMPORT_ERRORS = 10;
+
+    // Tamaño de página de la carga paginada y margen para pedir la siguiente por adelantado
+    private static final int PAGE_SIZE = 200;
+    private static final int PREFETCH_ROWS = PAGE_SIZE / 2;
+    // Filas que se mantienen alrededor de la vista; al pasarlo se descartan las del extremo opuesto
+    private static final int MAX_LOADED_ROWS = PAGE_SIZE * 5;
+
+    // Espera tras la última tecla antes de lanzar la búsqueda
+    private static final Duration FILTER_DEBOUNCE = Duration.millis(250);
+
+    // Ventana de páginas alrededor de la vista (como mucho MAX_LOADED_ROWS), en el orden que
+    // devuelve SQL. Las páginas descartadas se vuelven a pedir por cursor al desplazarse hacia ellas.
     private ObservableList<Transaction> transactionList = FXCollections.observableArrayList();
-    private FilteredList<Transaction> filteredTransactions;
-    private DecimalFormat currencyFormat = new DecimalFormat("$#,##0.00");
-    private Runnable dashboardRefreshCallback;
-
-    public void setDashboardRefreshCallback(Runnable callback) {
-        this.dashboardRefreshCallback = callback;
-    }
+    private Transaction.PageQuery currentQuery = Transaction.PageQuery.newestFirst();
+    private boolean hasMorePages = true;
+    private boolean hasPreviousPages;
+    private final PauseTransition filterDebounce = new PauseTransition(FILTER_DEBOUNCE);
+    private final LoadTracker loads = new LoadTracker();
+    // Totales mostrados (null hasta la primera carga); los eventos los ajustan sin consultar
+    private TransactionTotals totals;
+    // Exportación o importación en curso (solo una a la vez)
+    private Task<?> fileTask;
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        loadUserTransactions();
+        ScreenLoadTrace.initializing();
+
+        // Cancelar las cargas pendientes al cerrar la ventana de reportes
+        loads.cancelWhenHidden(transactionsTable);
+
         setupTableColumns();
+        setupPaging();
         setupFiltering();
+        loadUserTransactions();
         updateSummaryLabels();
+
+        // Aplicar los cambios de transacciones hechos desde cualquier pantalla, mientras esté abierta
+        DomainEventBus.Subscription dataChanges = DomainEventBus.subscribe(this::applyChanges,
+            DomainEvent.TransactionCreated.class, DomainEvent.TransactionUpdated.class,
+            DomainEvent.TransactionDeleted.class, DomainEvent.TransactionsImported.class);
+        LoadTracker.whenHidden(transactionsTable, dataChanges::cancel);
+    }
+
+    // Aplica los eventos como diferencias sobre las filas cargadas y los totales. Una importación,
+    // o un evento que llega con una carga en curso (que puede incluirlo o no), recarga todo.
+    private void applyChanges(List<DomainEvent> events) {
+        if (!TransactionTotals.isIncremental(events) || loads.isLoading("page")) {
+            refreshData();
+            return;
+        }
+
+        int currentUserId = SessionManager.getInstance().getCurrentUserId();
+        boolean summaryLoaded = totals != null && !loads.isLoading("summary");
+        for (DomainEvent event : events) {
+            if (event.userId() != currentUserId) {
+                continue;
+            }
+            switch (event) {
+                case DomainEvent.TransactionCreated created -> insertRow(created.transaction());
+                case DomainEvent.TransactionUpdated updated -> replaceRow(updated.transaction());
+                case DomainEvent.TransactionDeleted deleted -> removeRow(deleted.transaction().getId());
+                default -> {
+                }
+            }
+            if (summaryLoaded) {
+                totals = totals.apply(event);
+            }
+        }
+
+        if (summaryLoaded) {
+            showSummary(totals);
+        } else {
+            updateSummaryLabels();
+        }
+    }
+
+    // Inserta la fila en su posición según el orden actual, si cumple el filtro y cae dentro de las
+    // páginas cargadas (si cae antes o después, la traerá la paginación por cursor)
+    private void insertRow(Transaction transaction) {
+        if (!currentQuery.matches(transaction)) {
+            return;
+        }
+        int index = Collections.binarySearch(transactionList, transaction, currentQuery.order());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        if ((index > 0 || !hasPreviousPages) && (index < transactionList.size() || !hasMorePages)) {
+            transactionList.add(index, transaction);
+        }
+    }
+
+    // Pasa los valores guardados a la fila editada; si cambió su posición en el orden actual, la mueve
+    private void replaceRow(Transaction saved) {
+        int index = indexOf(saved.getId());
+        if (index < 0) {
+            insertRow(saved);
+            return;
+        }
+
+        Transaction transaction = transactionList.get(index);
+        transaction.copyValuesFrom(saved);
+        Comparator<Transaction> order = currentQuery.order();
+        // En un borde de la ventana no se sabe si pasó a una página descartada: se reinserta
+        boolean inPlace = currentQuery.matches(transaction)
+            && (index == 0 ? !hasPreviousPages : order.compare(transactionList.get(index - 1), transaction) <= 0)
+            && (index == transactionList.size() - 1 ? !hasMorePages
+                : order.compare(transaction, transactionList.get(index + 1)) <= 0);
+        if (inPlace) {
+            transactionList.set(index, transaction);
+        } else {
+            transactionList.remove(index);
+            insertRow(transaction);
+        }
+    }
+
+    private void removeRow(int transactionId) {
+        int index = indexOf(transactionId);
+        if (index >= 0) {
+            transactionList.remove(index);
+        }
     }
 
+    private int indexOf(int transactionId) {
+        for (int i = 0; i < transactionList.size(); i++) {
+            if (transactionList.get(i).getId() == transactionId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Vuelve a cargar desde la primera página con el orden y el filtro actuales
     private void loadUserTransactions() {
         int currentUserId = SessionManager.getInstance().getCurrentUserId();
         if (currentUserId > 0) {
-            List<Transaction> userTransactions = Transaction.getTransactionsByUser(currentUserId);
-            transactionList.setAll(userTransactions);
+            loads.cancel("page");
+            transactionList.clear();
+            hasMorePages = true;
+            hasPreviousPages = false;
+            transactionsTable.setPlaceholder(new ProgressIndicator());
+            loadNextPage();
+        }
+    }
+
+    // Pide la página que sigue a la última fila cargada (paginación por cursor)
+    private void loadNextPage() {
+        int currentUserId = SessionManager.getInstance().getCurrentUserId();
+        if (currentUserId <= 0 || !hasMorePages || loads.isLoading("page")) {
+            return;
+        }
+
+        Transaction after = transactionList.isEmpty() ? null : transactionList.get(transactionList.size() - 1);
+        loads.track("page", Transaction.getPageAsync(currentUserId, currentQuery, after, PAGE_SIZE), page -> {
+            hasMorePages = page.size() == PAGE_SIZE;
+            int firstVisible = firstVisibleIndex();
+            transactionList.addAll(page);
+            int dropped = Math.max(0, transactionList.size() - MAX_LOADED_ROWS);
+            if (dropped > 0) {
+                transactionList.remove(0, dropped);
+                hasPreviousPages = true;
+                scrollToIndex(firstVisible - dropped);
+            }
+            transactionsTable.setPlaceholder(new Label("No hay transacciones"));
+        });
+    }
+
+    // Vuelve a pedir la página anterior a la primera fila cargada, descartada al bajar
+    private void loadPreviousPage() {
+        int currentUserId = SessionManager.getInstance().getCurrentUserId();
+        if (currentUserId <= 0 || !hasPreviousPages || transactionList.isEmpty() || loads.isLoading("page")) {
+            return;
+        }
+
+        Transaction before = transactionList.get(0);
+        loads.track("page", Transaction.getPageBeforeAsync(currentUserId, currentQuery, before, PAGE_SIZE), page -> {
+            hasPreviousPages = page.size() == PAGE_SIZE;
+            int firstVisible = firstVisibleIndex();
+            transactionList.addAll(0, page);
+            int dropped = Math.max(0, transactionList.size() - MAX_LOADED_ROWS);
+            if (dropped > 0) {
+                transactionList.remove(transactionList.size() - dropped, transactionList.size());
+                hasMorePages = true;
+            }
+            scrollToIndex(firstVisible + page.size());
+        });
+    }
+
+    // Índice de la primera fila visible, para mantener la vista en su sitio al agregar o quitar
+    // filas por encima (-1 si la tabla aún no tiene filas dibujadas)
+    private int firstVisibleIndex() {
+        if (transactionsTable.lookup(".virtual-flow") instanceof VirtualFlow<?> flow
+                && flow.getFirstVisibleCell() != null) {
+            return flow.getFirstVisibleCell().getIndex();
+        }
+        return -1;
+    }
+
+    private void scrollToIndex(int index) {
+        if (index >= 0) {
+            transactionsTable.scrollTo(index);
+        }
+    }
+
+    private void setupPaging() {
+        actionsCol.setSortable(false);
+
+        // El orden se resuelve en SQL: al cambiar el orden de la tabla se recarga desde la primera página
+        transactionsTable.setSortPolicy(table -> {
+            Transaction.PageQuery query = queryFor(filterField.getText());
+            if (!query.equals(currentQuery)) {
+                currentQuery = query;
+                loadUserTransactions();
+            }
+            return true;
+        });
+
+        // Cuando se muestran las últimas (o las primeras) filas cargadas, pedir la página que sigue
+        // (o la anterior, si se descartó)
+        transactionsTable.setRowFactory(table -> new TableRow<>() {
+            @Override
+            protected void updateItem(Transaction item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty) {
+                    return;
+                }
+                if (getIndex() >= transactionList.size() - PREFETCH_ROWS) {
+                    loadNextPage();
+                } else if (getIndex() < PREFETCH_ROWS && hasPreviousPages) {
+                    loadPreviousPage();
+                }
+            }
+        });
+    }
+
+    // Traduce el orden de la tabla y el texto del filtro a una consulta paginada
+    private Transaction.PageQuery queryFor(String filter) {
+        String text = filter != null ? filter.trim() : "";
+        if (transactionsTable.getSortOrder().isEmpty()) {
+            return new Transaction.PageQuery(Transaction.SortField.DATE, false, text);
+        }
+
+        TableColumn<Transaction, ?> column = transactionsTable.getSortOrder().get(0);
+        Transaction.SortField field;
+        if (column == descriptionCol) {
+            field = Transaction.SortField.DESCRIPTION;
+        } else if (column == categoryCol) {
+            field = Transaction.SortField.CATEGORY;
+        } else if (column == amountCol) {
+            field = Transaction.SortField.AMOUNT;
+        } else {
+            field = Transaction.SortField.DATE;
         }
+        return new Transaction.PageQuery(field, column.getSortType() == TableColumn.SortType.ASCENDING, text);
     }
 
     private void setupTableColumns() {
@@ -96,28 +340,28 @@ public class ReportsViewController implements Initializable {
 
         amountCol.setCellValueFactory(new PropertyValueFactory<>("amount"));
         amountCol.setCellFactory(column -> new TableCell<>() {
+            {
+                getStyleClass().add("amount-cell");
+            }
+
             @Override
-            protected void updateItem(Double amount, boolean empty) {
+            protected void updateItem(Money amount, boolean empty) {
                 super.updateItem(amount, empty);
-                if (empty || amount == null) {
+                Transaction transaction = getTableRow() != null ? getTableRow().getItem() : null;
+                if (empty || amount == null || transaction == null) {
                     setText(null);
-                    setStyle("");
+                    CellStyles.setType(this, null);
                 } else {
-                    Transaction transaction = getTableView().getItems().get(getIndex());
-                    if (transaction.getType() == Transaction.TransactionType.INCOME) {
-                        setText(String.format("+$%,.2f", amount));
-                        setStyle("-fx-text-fill: #4CAF50; -fx-font-weight: bold;");
-                    } else {
-                        setText(String.format("-$%,.2f", amount));
-                        setStyle("-fx-text-fill: #F44336; -fx-font-weight: bold;");
-                    }
+                    boolean income = transaction.getType() == Transaction.TransactionType.INCOME;
+                    setText((income ? "+" : "-") + amount.format());
+                    CellStyles.setType(this, transaction.getType());
                 }
             }
         });
 
         actionsCol.setCellFactory(param -> new TableCell<>() {
-            private final Button editBtn = createIconButton("M3 17.25V21h3.75L17.81 9.94l-3.75-3.75L3 17.25zM20.71 7.04c.39-.39.39-1.02 0-1.41l-2.34-2.34c-.39-.39-1.02-.39-1.41 0l-1.83 1.83 3.75 3.75 1.83-1.83z", "button-icon-edit");
-            private final Button deleteBtn = createIconButton("M6 19c0 1.1.9 2 2 2h8c1.1 0 2-.9 2-2V7H6v12zM19 4h-3.5l-1-1h-5l-1 1H5v2h14V4z", "button-icon-delete");
+            private final Button editBtn = CellStyles.iconButton("icon-edit", "button-icon-edit", "Editar transacción");
+            private final Button deleteBtn = CellStyles.iconButton("icon-delete", "button-icon-delete", "Eliminar transacción");
             private final HBox pane = new HBox(10, editBtn, deleteBtn);
 
             {
@@ -126,16 +370,15 @@ public class ReportsViewController implements Initializable {
                     Transaction transaction = getTableView().getItems().get(getIndex());
                     if (AlertUtils.showConfirmationAlert("Confirmar eliminación",
                         "¿Estás seguro de que quieres eliminar esta transacción?")) {
-                        if (transaction.delete()) {
-                            transactionList.remove(transaction);
-                            updateSummaryLabels();
-                            if (dashboardRefreshCallback != null) {
-                                dashboardRefreshCallback.run();
+                        deleteBtn.setDisable(true);
+                        transaction.deleteAsync().whenCompleteAsync((deleted, error) -> {
+                            deleteBtn.setDisable(false);
+                            if (error == null && deleted) {
+                                AlertUtils.showSuccessAlert("Éxito", "Transacción eliminada correctamente");
+                            } else {
+                                AlertUtils.showErrorAlert("Error", "No se pudo eliminar la transacción");
                             }
-                            AlertUtils.showSuccessAlert("Éxito", "Transacción eliminada correctamente");
-                        } else {
-                            AlertUtils.showErrorAlert("Error", "No se pudo eliminar la transacción");
-                        }
+                        }, DataExecutor.fx());
                     }
                 });
 
@@ -154,33 +397,18 @@ public class ReportsViewController implements Initializable {
     }
 
     private void setupFiltering() {
-        filteredTransactions = new FilteredList<>(transactionList, p -> true);
-
-        filterField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredTransactions.setPredicate(transaction -> {
-                if (newValue == null || newValue.isEmpty()) {
-                    return true;
-                }
-
-                String lowerCaseFilter = newValue.toLowerCase();
-
-                if (transaction.getDescription() != null && transaction.getDescription().toLowerCase().contains(lowerCaseFilter)) {
-                    return true;
-                }
-                if (transaction.getCategory() != null && transaction.getCategory().toLowerCase().contains(lowerCaseFilter)) {
-                    return true;
-                }
-                if (transaction.getNote() != null && transaction.getNote().toLowerCase().contains(lowerCaseFilter)) {
-                    return true;
-                }
-
-                return false;
-            });
+        transactionsTable.setItems(transactionList);
+
+        // El filtro se resuelve en SQL con índices de búsqueda. Se espera a que el usuario deje de
+        // escribir para no lanzar una consulta por cada tecla.
+        filterDebounce.setOnFinished(event -> {
+            Transaction.PageQuery query = queryFor(filterField.getText());
+            if (!query.equals(currentQuery)) {
+                currentQuery = query;
+                loadUserTransactions();
+            }
         });
-
-        SortedList<Transaction> sortedTransactions = new SortedList<>(filteredTransactions);
-        sortedTransactions.comparatorProperty().bind(transactionsTable.comparatorProperty());
-        transactionsTable.setItems(sortedTransactions);
+        filterField.textProperty().addListener((observable, oldValue, newValue) -> filterDebounce.playFromStart());
     }
 
     private void updateSummaryLabels() {
@@ -197,105 +425,44 @@ public class ReportsViewController implements Initializable {
             return;
         }
 
-        double totalIncome = Transaction.getTotalIncome(currentUserId);
-        double totalExpenses = Transaction.getTotalExpenses(currentUserId);
-        double netBalance = totalIncome - totalExpenses;
+        CompletableFuture<TransactionTotals> loaded = Transaction.getTotalIncomeAsync(currentUserId)
+                .thenCombine(Transaction.getTotalExpensesAsync(currentUserId), TransactionTotals::new);
+        loads.track("summary", loaded, this::showSummary);
+    }
 
-        totalIncomeLabel.setText(currencyFormat.format(totalIncome));
-        totalExpensesLabel.setText(currencyFormat.format(totalExpenses));
-        netBalanceLabel.setText(currencyFormat.format(netBalance));
+    private void showSummary(TransactionTotals loaded) {
+        totals = loaded;
+        Money netBalance = loaded.balance();
 
-        if (netBalance >= 0) {
+        totalIncomeLabel.setText(loaded.income().format());
+        totalExpensesLabel.setText(loaded.expenses().format());
+        netBalanceLabel.setText(netBalance.format());
+
+        if (!netBalance.isNegative()) {
             netBalanceLabel.setStyle("-fx-text-fill: #4CAF50;");
         } else {
             netBalanceLabel.setStyle("-fx-text-fill: #F44336;");
         }
     }
 
-    private Button createIconButton(String iconPath, String styleClass) {
-        Button button = new Button();
-        SVGPath icon = new SVGPath();
-        icon.setContent(iconPath);
-        icon.getStyleClass().add("icon");
-
-        // Asignar un tamaño específico al icono
-        icon.setScaleX(1.2);
-        icon.setScaleY(1.2);
-
-        // Establecer color para el icono
-        if (styleClass.contains("edit")) {
-            icon.setStyle("-fx-fill: #007BFF;"); // Azul para editar
-        } else if (styleClass.contains("delete")) {
-            icon.setStyle("-fx-fill: #DC3545;"); // Rojo para eliminar
-        }
-
-        button.setGraphic(icon);
-        button.getStyleClass().addAll("button-icon", styleClass);
-
-        // Dar un tamaño mínimo al botón para asegurar visibilidad
-        button.setMinSize(30, 30);
-        button.setPrefSize(30, 30);
-
-        // Agregar tooltip
-        if (styleClass.contains("edit")) {
-            Tooltip tooltip = new Tooltip("Editar transacción");
-            button.setTooltip(tooltip);
-        } else if (styleClass.contains("delete")) {
-            Tooltip tooltip = new Tooltip("Eliminar transacción");
-            button.setTooltip(tooltip);
-        }
-
-        return button;
-    }
-
     private void openEditTransactionForm(Transaction transaction) {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Fxml/TransactionFormView.fxml"));
-            Parent root = loader.load();
-
-            TransactionFormController controller = loader.getController();
-            controller.populateForm(transaction);
-            controller.setOnTransactionSaved(() -> {
-                loadUserTransactions();
-                updateSummaryLabels();
-                if (dashboardRefreshCallback != null) {
-                    dashboardRefreshCallback.run();
-                }
-            });
-
-            Stage stage = new Stage();
-            stage.setTitle("Editar Transacción");
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.setScene(new Scene(root));
-            stage.setResizable(false);
-            stage.showAndWait();
-
-        } catch (IOException e) {
-            System.err.println("Error al cargar formulario de edición: " + e.getMessage());
-            e.printStackTrace();
-        }
+        showTransactionForm("Editar Transacción", controller -> controller.populateForm(transaction));
     }
 
     @FXML
     private void addNewTransaction() {
+        showTransactionForm("Nueva Transacción",
+                            controller -> controller.configureFor(TransactionFormController.FormType.EXPENSE));
+    }
+
+    // Abre el formulario de transacción (reutilizado entre aperturas)
+    private void showTransactionForm(String title, Consumer<TransactionFormController> setup) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Fxml/TransactionFormView.fxml"));
-            Parent root = loader.load();
+            ViewRegistry.View<TransactionFormController> form = ViewRegistry.form(ViewRegistry.TRANSACTION_FORM);
 
-            TransactionFormController controller = loader.getController();
-            controller.configureFor(TransactionFormController.FormType.EXPENSE);
-            controller.setOnTransactionSaved(() -> {
-                loadUserTransactions();
-                updateSummaryLabels();
-                if (dashboardRefreshCallback != null) {
-                    dashboardRefreshCallback.run();
-                }
-            });
+            setup.accept(form.controller());
 
-            Stage stage = new Stage();
-            stage.setTitle("Nueva Transacción");
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.setScene(new Scene(root));
+            Stage stage = form.dialog(title);
             stage.setResizable(false);
             stage.showAndWait();
 
@@ -313,154 +480,134 @@ public class ReportsViewController implements Initializable {
 
     @FXML
     private void downloadTransactions() {
-        try {
-            // Mostrar FileChooser para seleccionar dónde guardar el PDF
-            FileChooser fileChooser = new FileChooser();
-            fileChooser.setTitle("Guardar Reporte de Transacciones");
-            fileChooser.setInitialFileName("reporte_transacciones.pdf");
-            fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("Archivos PDF", "*.pdf")
-            );
-
-            Stage stage = (Stage) transactionsTable.getScene().getWindow();
-            File file = fileChooser.showSaveDialog(stage);
-
-            if (file != null) {
-                generatePDF(file);
-                AlertUtils.showSuccessAlert("Éxito", "Reporte PDF generado exitosamente en:\n" + file.getAbsolutePath());
-            }
+        if (fileTask != null && fileTask.isRunning()) {
+            return;
+        }
 
-        } catch (Exception e) {
-            AlertUtils.showErrorAlert("Error", "Error al generar el reporte PDF: " + e.getMessage());
-            e.printStackTrace();
+        // Mostrar FileChooser para seleccionar dónde guardar el PDF
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Guardar Reporte de Transacciones");
+        fileChooser.setInitialFileName("reporte_transacciones.pdf");
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter("Archivos PDF", "*.pdf")
+        );
+
+        Stage stage = (Stage) transactionsTable.getScene().getWindow();
+        File file = fileChooser.showSaveDialog(stage);
+        if (file == null) {
+            return;
         }
+
+        // El PDF se genera en segundo plano, leyendo las filas por bloques
+        SessionManager session = SessionManager.getInstance();
+        PdfExportTask task = new PdfExportTask(session.getCurrentUserId(), session.getCurrentUsername(), file);
+
+        runFileTask(task, stage, () ->
+            AlertUtils.showSuccessAlert("Éxito", "Reporte PDF generado exitosamente en:\n" + file.getAbsolutePath()),
+            "Error al generar el reporte PDF: ");
     }
 
-    private void generatePDF(File file) throws Exception {
-        Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, new FileOutputStream(file));
-        document.open();
+    @FXML
+    private void importStatement() {
+        if (fileTask != null && fileTask.isRunning()) {
+            return;
+        }
 
-        // Título del documento
-        com.lowagie.text.Font titleFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 18, com.lowagie.text.Font.BOLD);
-        Paragraph title = new Paragraph("REPORTE DE TRANSACCIONES", titleFont);
-        title.setAlignment(Element.ALIGN_CENTER);
-        title.setSpacingAfter(20f);
-        document.add(title);
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Importar Extracto Bancario");
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("Extractos (CSV, OFX)", "*.csv", "*.ofx", "*.qfx"),
+            new FileChooser.ExtensionFilter("Archivos CSV", "*.csv"),
+            new FileChooser.ExtensionFilter("Archivos OFX", "*.ofx", "*.qfx")
+        );
+
+        Stage stage = (Stage) transactionsTable.getScene().getWindow();
+        File file = fileChooser.showOpenDialog(stage);
+        if (file == null) {
+            return;
+        }
 
-        // Información del usuario y fecha
-        com.lowagie.text.Font normalFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 12, com.lowagie.text.Font.NORMAL);
-        com.lowagie.text.Font boldFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 12, com.lowagie.text.Font.BOLD);
+        // El archivo se lee y se carga con COPY en segundo plano; el evento de la importación recarga los datos
+        TransactionImportTask task = new TransactionImportTask(SessionManager.getInstance().getCurrentUserId(), file);
+        runFileTask(task, stage, () -> {
+            TransactionImport.Result result = task.getValue();
+            if (result.cancelled()) {
+                return;
+            }
+            showImportSummary(result);
+        }, "Error al importar el extracto: ");
+    }
 
-        String username = SessionManager.getInstance().getCurrentUsername();
-        Paragraph userInfo = new Paragraph("Usuario: " + username, normalFont);
-        userInfo.setSpacingAfter(10f);
-        document.add(userInfo);
+    private void showImportSummary(TransactionImport.Result result) {
+        StringBuilder message = new StringBuilder()
+            .append("Movimientos importados: ").append(result.imported())
+            .append("\nDuplicados omitidos: ").append(result.duplicates());
 
-        Paragraph dateInfo = new Paragraph("Fecha de generación: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")), normalFont);
-        dateInfo.setSpacingAfter(20f);
-        document.add(dateInfo);
+        List<TransactionImport.LineError> errors = result.errors();
+        if (errors.isEmpty()) {
+            AlertUtils.showSuccessAlert("Importación completada", message.toString());
+            return;
+        }
 
-        // Resumen financiero
-        int currentUserId = SessionManager.getInstance().getCurrentUserId();
-        double totalIncome = Transaction.getTotalIncome(currentUserId);
-        double totalExpenses = Transaction.getTotalExpenses(currentUserId);
-        double netBalance = totalIncome - totalExpenses;
-
-        Paragraph summaryTitle = new Paragraph("RESUMEN FINANCIERO", boldFont);
-        summaryTitle.setSpacingAfter(10f);
-        document.add(summaryTitle);
-
-        Paragraph incomeP = new Paragraph("Total Ingresos: " + currencyFormat.format(totalIncome), normalFont);
-        document.add(incomeP);
-
-        Paragraph expensesP = new Paragraph("Total Gastos: " + currencyFormat.format(totalExpenses), normalFont);
-        document.add(expensesP);
-
-        Paragraph balanceP = new Paragraph("Balance Neto: " + currencyFormat.format(netBalance), boldFont);
-        balanceP.setSpacingAfter(20f);
-        document.add(balanceP);
-
-        // Tabla de transacciones
-        Paragraph tableTitle = new Paragraph("DETALLE DE TRANSACCIONES", boldFont);
-        tableTitle.setSpacingAfter(10f);
-        document.add(tableTitle);
-
-        // Crear tabla con 5 columnas
-        PdfPTable table = new PdfPTable(5);
-        table.setWidthPercentage(100);
-        table.setSpacingBefore(10f);
-        table.setSpacingAfter(10f);
-
-        // Configurar anchos de columnas
-        float[] columnWidths = {20f, 25f, 15f, 20f, 20f};
-        table.setWidths(columnWidths);
-
-        // Headers de la tabla
-        addTableHeader(table, "Fecha");
-        addTableHeader(table, "Categoría");
-        addTableHeader(table, "Tipo");
-        addTableHeader(table, "Monto");
-        addTableHeader(table, "Descripción");
-
-        // Agregar datos de transacciones
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        com.lowagie.text.Font cellFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 9, com.lowagie.text.Font.NORMAL);
-
-        for (Transaction transaction : transactionList) {
-            // Fecha
-            String dateStr = transaction.getDate() != null ? transaction.getDate().format(dateFormatter) : "";
-            PdfPCell dateCell = new PdfPCell(new Phrase(dateStr, cellFont));
-            table.addCell(dateCell);
-
-            // Categoría
-            String category = transaction.getCategory() != null ? transaction.getCategory() : "";
-            PdfPCell categoryCell = new PdfPCell(new Phrase(category, cellFont));
-            table.addCell(categoryCell);
-
-            // Tipo
-            String type = transaction.getType() == Transaction.TransactionType.INCOME ? "Ingreso" : "Gasto";
-            PdfPCell typeCell = new PdfPCell(new Phrase(type, cellFont));
-            table.addCell(typeCell);
-
-            // Monto
-            String amountStr;
-            if (transaction.getType() == Transaction.TransactionType.INCOME) {
-                amountStr = "+" + currencyFormat.format(transaction.getAmount());
-            } else {
-                amountStr = "-" + currencyFormat.format(transaction.getAmount());
-            }
-            PdfPCell amountCell = new PdfPCell(new Phrase(amountStr, cellFont));
-            table.addCell(amountCell);
-
-            // Descripción o Nota
-            String description = transaction.getNote() != null ? transaction.getNote() :
-                                (transaction.getDescription() != null ? transaction.getDescription() : "");
-            if (description.length() > 50) {
-                description = description.substring(0, 47) + "...";
-            }
-            PdfPCell descCell = new PdfPCell(new Phrase(description, cellFont));
-            table.addCell(descCell);
+        message.append("\nLíneas con errores: ").append(errors.size());
+        for (int i = 0; i < Math.min(errors.size(), MAX_SHOWN_IMPORT_ERRORS); i++) {
+            TransactionImport.LineError error = errors.get(i);
+            message.append("\n  Línea ").append(error.lineNumber()).append(": ").append(error.message());
         }
+        if (errors.size() > MAX_SHOWN_IMPORT_ERRORS) {
+            message.append("\n  ...");
+        }
+        showAlert("Importación completada", message.toString(), Alert.AlertType.WARNING);
+    }
 
-        document.add(table);
+    // Ejecuta la exportación o importación en segundo plano mostrando su avance en la barra de progreso
+    private void runFileTask(Task<?> task, Stage stage, Runnable onSuccess, String errorPrefix) {
+        fileTask = task;
 
-        // Pie de página
-        Paragraph footer = new Paragraph("\n\nReporte generado por Arion - Gestor de Finanzas Personales",
-                                        new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 8, com.lowagie.text.Font.ITALIC));
-        footer.setAlignment(Element.ALIGN_CENTER);
-        document.add(footer);
+        exportProgressBar.progressProperty().bind(task.progressProperty());
+        exportStatusLabel.textProperty().bind(task.messageProperty());
+        exportProgressBox.setVisible(true);
+        downloadButton.setDisable(true);
+        importButton.setDisable(true);
 
-        document.close();
+        // Cancelar la tarea si se cierra la ventana de reportes
+        EventHandler<WindowEvent> cancelOnHide = event -> task.cancel();
+        stage.addEventHandler(WindowEvent.WINDOW_HIDDEN, cancelOnHide);
+
+        task.stateProperty().addListener((obs, oldState, newState) -> {
+            if (newState != Worker.State.SUCCEEDED && newState != Worker.State.FAILED
+                    && newState != Worker.State.CANCELLED) {
+                return;
+            }
+
+            stage.removeEventHandler(WindowEvent.WINDOW_HIDDEN, cancelOnHide);
+            exportProgressBar.progressProperty().unbind();
+            exportStatusLabel.textProperty().unbind();
+            exportProgressBox.setVisible(false);
+            downloadButton.setDisable(false);
+            importButton.setDisable(false);
+            fileTask = null;
+
+            if (newState == Worker.State.SUCCEEDED) {
+                onSuccess.run();
+            } else if (newState == Worker.State.FAILED) {
+                Throwable error = task.getException();
+                AlertUtils.showErrorAlert("Error", errorPrefix +
+                        (error != null ? error.getMessage() : "error desconocido"));
+                if (error != null) {
+                    error.printStackTrace();
+                }
+            }
+        });
+
+        DataExecutor.background().execute(task);
     }
 
-    private void addTableHeader(PdfPTable table, String headerText) {
-        com.lowagie.text.Font headerFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 10, com.lowagie.text.Font.BOLD);
-        PdfPCell header = new PdfPCell(new Phrase(headerText, headerFont));
-        header.setHorizontalAlignment(Element.ALIGN_CENTER);
-        header.setBackgroundColor(new Color(240, 240, 240));
-        header.setPadding(5);
-        table.addCell(header);
+    @FXML
+    private void cancelExport() {
+        if (fileTask != null) {
+            fileTask.cancel();
+        }
     }
 
     private void showAlert(String title, String message) {
@@ -1,8 +1,11 @@
 package com.arion.Controller;
 
+import com.arion.Model.Money;
 import com.arion.Model.Transaction;
+import com.arion.Config.DataExecutor;
 import com.arion.Config.SessionManager;
 import com.arion.Utils.AlertUtils;
+import com.arion.Utils.ViewRegistry;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -10,8 +13,10 @@ import javafx.scene.layout.VBox;
 import javafx.scene.shape.SVGPath;
 import javafx.stage.Stage;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-public class TransactionFormController {
+public class TransactionFormController implements ViewRegistry.ReusableView {
 
     // Enum para definir el tipo de formulario
     public enum FormType {
@@ -29,17 +34,42 @@ public class TransactionFormController {
 
     private Transaction transactionToEdit;
     private FormType currentFormType;
-    private Runnable onTransactionSaved; // Callback para refrescar dashboard
+    // Cambia en cada reset(): un guardado de una apertura anterior que termina tarde no toca
+    // el formulario ya reutilizado
+    private int generation;
+
+    // Estado inicial del encabezado según el FXML, para restaurarlo al reutilizar el formulario
+    private String defaultIconContent;
+    private List<String> defaultIconStyles;
+    private String defaultSaveText;
 
     @FXML
     private void initialize() {
+        defaultIconContent = formIcon.getContent();
+        defaultIconStyles = List.copyOf(formIcon.getStyleClass());
+        defaultSaveText = saveButton.getText();
+
         // Establecer fecha por defecto a hoy
         datePicker.setValue(LocalDate.now());
     }
 
-    // Método para configurar callback de guardado
-    public void setOnTransactionSaved(Runnable callback) {
-        this.onTransactionSaved = callback;
+    // Deja el formulario como recién cargado (ViewRegistry lo reutiliza entre aperturas)
+    @Override
+    public void reset() {
+        generation++;
+        transactionToEdit = null;
+        currentFormType = null;
+
+        formTitleLabel.setText("");
+        formIcon.setContent(defaultIconContent);
+        formIcon.getStyleClass().setAll(defaultIconStyles);
+        categoryComboBox.getItems().clear();
+        categoryComboBox.setValue(null);
+        amountField.clear();
+        datePicker.setValue(LocalDate.now());
+        noteTextArea.clear();
+        saveButton.setText(defaultSaveText);
+        saveButton.setDisable(false);
     }
 
     // Método para configurar la UI según sea Ingreso o Gasto
@@ -70,7 +100,7 @@ public class TransactionFormController {
         configureFor(transaction.getType() == Transaction.TransactionType.INCOME ? FormType.INCOME : FormType.EXPENSE);
 
         // Llena los campos con los datos de la transacción
-        amountField.setText(String.format("%.2f", transaction.getAmount()));
+        amountField.setText(transaction.getAmount().toString());
         categoryComboBox.setValue(transaction.getCategory());
         datePicker.setValue(transaction.getDate());
         noteTextArea.setText(transaction.getNote());
@@ -92,7 +122,7 @@ public class TransactionFormController {
         }
 
         try {
-            double amount = Double.parseDouble(amountField.getText());
+            Money amount = Money.parse(amountField.getText());
             String category = categoryComboBox.getValue();
             LocalDate date = datePicker.getValue();
             String note = noteTextArea.getText().trim();
@@ -100,35 +130,45 @@ public class TransactionFormController {
                 Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE;
 
             Transaction transaction;
-            boolean success;
+            CompletableFuture<Boolean> result;
             int userId = SessionManager.getInstance().getCurrentUserId();
 
             if (transactionToEdit != null) {
-                // Actualizar transacción existente
-                transactionToEdit.setAmount(amount);
-                transactionToEdit.setCategory(category);
-                transactionToEdit.setDate(date);
-                transactionToEdit.setNote(note);
-                transactionToEdit.setType(type);
-                success = transactionToEdit.update(); // Usar update() para actualizar una transacción existente
+                // Actualizar una copia: la fila que se muestra recibe los valores con el evento
+                // TransactionUpdated, solo si la actualización se guardó
+                transaction = transactionToEdit.copy();
+                transaction.setAmount(amount);
+                transaction.setCategory(category);
+                transaction.setDate(date);
+                transaction.setNote(note);
+                transaction.setType(type);
+                result = transaction.updateAsync(); // Usar update() para actualizar una transacción existente
             } else {
                 // Crear nueva transacción
                 transaction = new Transaction(category, category, date, amount, type, note);
-                success = transaction.save(userId); // Pasar el userId como parámetro
+                result = transaction.saveAsync(userId); // Pasar el userId como parámetro
             }
 
-            if (success) {
-                AlertUtils.showSuccessAlert("Éxito", "Transacción guardada correctamente");
-
-                // Llamar callback para refrescar dashboard
-                if (onTransactionSaved != null) {
-                    onTransactionSaved.run();
+            // Guardar en segundo plano y volver al hilo de JavaFX para actualizar la UI
+            saveButton.setDisable(true);
+            int saveGeneration = generation;
+            result.whenCompleteAsync((success, error) -> {
+                if (saveGeneration != generation) {
+                    // El formulario se cerró y se volvió a abrir: solo se avisa si falló
+                    if (error != null || !success) {
+                        AlertUtils.showErrorAlert("Error", "No se pudo guardar la transacción");
+                    }
+                    return;
                 }
-
-                closeWindow();
-            } else {
-                AlertUtils.showErrorAlert("Error", "No se pudo guardar la transacción");
-            }
+                saveButton.setDisable(false);
+                if (error == null && success) {
+                    // Las pantallas abiertas se refrescan con el evento que publica el modelo
+                    AlertUtils.showSuccessAlert("Éxito", "Transacción guardada correctamente");
+                    closeWindow();
+                } else {
+                    AlertUtils.showErrorAlert("Error", "No se pudo guardar la transacción");
+                }
+            }, DataExecutor.fx());
 
         } catch (NumberFormatException e) {
             AlertUtils.showErrorAlert("Error", "Por favor ingrese un monto válido");
@@ -149,8 +189,8 @@ public class TransactionFormController {
         }
 
         try {
-            double amount = Double.parseDouble(amountField.getText());
-            if (amount <= 0) {
+            Money amount = Money.parse(amountField.getText());
+            if (!amount.isPositive()) {
                 AlertUtils.showErrorAlert("Error de validación", "El monto debe ser mayor que cero");
                 return false;
             }
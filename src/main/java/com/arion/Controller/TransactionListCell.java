@@ -0,0 +1,50 @@
+package com.arion.Controller;
+
+import com.arion.Model.Transaction;
+import com.arion.Utils.CellStyles;
+import javafx.geometry.Pos;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+// Celda de transacción del dashboard: categoría y fecha a la izquierda, monto a la derecha.
+// Los nodos se crean una vez por celda; updateItem solo cambia los textos y la pseudo-clase del monto.
+public final class TransactionListCell extends ListCell<Transaction> {
+
+    private final Label categoryLabel = new Label();
+    private final Label dateLabel = new Label();
+    private final Label amountLabel = new Label();
+    private final HBox content;
+
+    public TransactionListCell() {
+        categoryLabel.getStyleClass().add("transaction-cell-category");
+        dateLabel.getStyleClass().add("transaction-cell-date");
+        amountLabel.getStyleClass().add("transaction-cell-amount");
+
+        VBox descriptionBox = new VBox(categoryLabel, dateLabel);
+        HBox.setHgrow(descriptionBox, Priority.ALWAYS);
+
+        content = new HBox(10, descriptionBox, amountLabel);
+        content.setAlignment(Pos.CENTER_LEFT);
+
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    @Override
+    protected void updateItem(Transaction item, boolean empty) {
+        super.updateItem(item, empty);
+        if (empty || item == null) {
+            setGraphic(null);
+            CellStyles.setType(amountLabel, null);
+        } else {
+            categoryLabel.setText(item.getCategory());
+            dateLabel.setText(item.getDateString());
+            amountLabel.setText(item.getAmount().format());
+            CellStyles.setType(amountLabel, item.getType());
+            setGraphic(content);
+        }
+    }
+}
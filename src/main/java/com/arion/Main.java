@@ -1,15 +1,47 @@
 package com.arion;
 
+import com.arion.Config.AppEvents;
+import com.arion.Config.DataExecutor;
+import com.arion.Config.Database;
+import com.arion.Config.FxStallDetector;
+import com.arion.Config.SchemaMigrator;
+import com.arion.Utils.ViewRegistry;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 public class Main extends Application {
+    @Override
+    public void init() {
+        // -Darion.jfr=archivo.jfr graba con los eventos de la app (ver AppEvents)
+        AppEvents.startRecordingIfRequested();
+
+        // Abrir las conexiones del pool antes de mostrar la primera ventana
+        try {
+            Database.prewarm();
+        } catch (Exception e) {
+            System.err.println("No se pudo preparar el pool de conexiones: " + e.getMessage());
+        }
+
+        // Crear o actualizar el esquema de la base de datos
+        try {
+            SchemaMigrator.migrate();
+        } catch (Exception e) {
+            System.err.println("No se pudieron aplicar las migraciones del esquema: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     @Override
     public void start(Stage stage) throws Exception {
-        Parent root = FXMLLoader.load(getClass().getResource("/Fxml/LoginView.fxml"));
+        // Vigilar el hilo de JavaFX desde la primera pantalla (informe de bloqueos al salir y por JMX/JFR)
+        FxStallDetector.start();
+
+        // Las hojas de estilo se analizan una vez y quedan en memoria para todas las ventanas y diálogos
+        ViewRegistry.retainStylesheets();
+
+        Parent root = ViewRegistry.load(ViewRegistry.LOGIN).root();
         Scene scene = new Scene(root);
         stage.setScene(scene);
         stage.setTitle("Mi App JavaFX");
@@ -17,6 +49,14 @@ public class Main extends Application {
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        FxStallDetector.stop();
+        DataExecutor.shutdown();
+        Database.shutdown();
+        AppEvents.stopRecording();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -1,126 +1,189 @@
 package com.arion.Model;
 
+import com.arion.Config.DataExecutor;
 import com.arion.Config.Database;
+import com.arion.Config.DomainEventBus;
+import com.arion.Config.SqlStatement;
+import com.arion.Utils.ExpiringCache;
 import java.sql.*;
-import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import javafx.beans.property.*;
 
 public class Budget {
 
-    private final IntegerProperty id;
-    private final IntegerProperty userId;
-    private final StringProperty category;
-    private final DoubleProperty limitAmount;
-    private final ObjectProperty<YearMonth> periodYearMonth; // Para presupuestos mensuales
-    private final BooleanProperty active;
+    // Presupuestos activos por usuario (copias inmutables en la práctica: nunca se entregan las
+    // instancias guardadas). save/update/delete la actualizan en el lugar; el vencimiento cubre
+    // los cambios hechos desde otra instancia de la aplicación.
+    private static final ExpiringCache<Integer, List<Budget>> ACTIVE_BY_USER =
+        new ExpiringCache<>(64, 5 * 60_000);
+
+    // Mismo orden que la consulta: periodo más reciente primero
+    private static final Comparator<Budget> NEWEST_PERIOD_FIRST =
+        Comparator.comparing(Budget::getPeriodYearMonth).reversed();
+
+    // Valores en campos simples; la propiedad JavaFX se crea en la primera llamada a xxxProperty()
+    // y desde entonces guarda el valor (ver Transaction)
+    private int id;
+    private int userId;
+    private String category;
+    private Money limitAmount;
+    private YearMonth periodYearMonth; // Para presupuestos mensuales
+    private boolean active;
+
+    private IntegerProperty idProperty;
+    private IntegerProperty userIdProperty;
+    private StringProperty categoryProperty;
+    private ObjectProperty<Money> limitAmountProperty;
+    private ObjectProperty<YearMonth> periodYearMonthProperty;
+    private BooleanProperty activeProperty;
 
     // Constructor para nuevo presupuesto
-    public Budget(String category, double limitAmount, YearMonth periodYearMonth) {
-        this.id = new SimpleIntegerProperty(0);
-        this.userId = new SimpleIntegerProperty(0);
-        this.category = new SimpleStringProperty(category);
-        this.limitAmount = new SimpleDoubleProperty(limitAmount);
-        this.periodYearMonth = new SimpleObjectProperty<>(periodYearMonth);
-        this.active = new SimpleBooleanProperty(true);
+    public Budget(String category, Money limitAmount, YearMonth periodYearMonth) {
+        this(0, 0, category, limitAmount, periodYearMonth, true);
     }
 
     // Constructor para presupuesto existente
-    public Budget(int id, int userId, String category, double limitAmount, YearMonth periodYearMonth, boolean active) {
-        this.id = new SimpleIntegerProperty(id);
-        this.userId = new SimpleIntegerProperty(userId);
-        this.category = new SimpleStringProperty(category);
-        this.limitAmount = new SimpleDoubleProperty(limitAmount);
-        this.periodYearMonth = new SimpleObjectProperty<>(periodYearMonth);
-        this.active = new SimpleBooleanProperty(active);
+    public Budget(int id, int userId, String category, Money limitAmount, YearMonth periodYearMonth, boolean active) {
+        this.id = id;
+        this.userId = userId;
+        this.category = category;
+        this.limitAmount = limitAmount;
+        this.periodYearMonth = periodYearMonth;
+        this.active = active;
     }
 
     // Getters y Setters con propiedades JavaFX
     public int getId() {
-        return id.get();
+        return idProperty != null ? idProperty.get() : id;
     }
 
     public IntegerProperty idProperty() {
-        return id;
+        if (idProperty == null) {
+            idProperty = new SimpleIntegerProperty(id);
+        }
+        return idProperty;
     }
 
     public void setId(int id) {
-        this.id.set(id);
+        if (idProperty != null) {
+            idProperty.set(id);
+        } else {
+            this.id = id;
+        }
     }
 
     public int getUserId() {
-        return userId.get();
+        return userIdProperty != null ? userIdProperty.get() : userId;
     }
 
     public IntegerProperty userIdProperty() {
-        return userId;
+        if (userIdProperty == null) {
+            userIdProperty = new SimpleIntegerProperty(userId);
+        }
+        return userIdProperty;
     }
 
     public void setUserId(int userId) {
-        this.userId.set(userId);
+        if (userIdProperty != null) {
+            userIdProperty.set(userId);
+        } else {
+            this.userId = userId;
+        }
     }
 
     public String getCategory() {
-        return category.get();
+        return categoryProperty != null ? categoryProperty.get() : category;
     }
 
     public StringProperty categoryProperty() {
-        return category;
+        if (categoryProperty == null) {
+            categoryProperty = new SimpleStringProperty(category);
+        }
+        return categoryProperty;
     }
 
     public void setCategory(String category) {
-        this.category.set(category);
+        if (categoryProperty != null) {
+            categoryProperty.set(category);
+        } else {
+            this.category = category;
+        }
     }
 
-    public double getLimitAmount() {
-        return limitAmount.get();
+    public Money getLimitAmount() {
+        return limitAmountProperty != null ? limitAmountProperty.get() : limitAmount;
     }
 
-    public DoubleProperty limitAmountProperty() {
-        return limitAmount;
+    public ObjectProperty<Money> limitAmountProperty() {
+        if (limitAmountProperty == null) {
+            limitAmountProperty = new SimpleObjectProperty<>(limitAmount);
+        }
+        return limitAmountProperty;
     }
 
-    public void setLimitAmount(double limitAmount) {
-        this.limitAmount.set(limitAmount);
+    public void setLimitAmount(Money limitAmount) {
+        if (limitAmountProperty != null) {
+            limitAmountProperty.set(limitAmount);
+        } else {
+            this.limitAmount = limitAmount;
+        }
     }
 
     public YearMonth getPeriodYearMonth() {
-        return periodYearMonth.get();
+        return periodYearMonthProperty != null ? periodYearMonthProperty.get() : periodYearMonth;
     }
 
     public ObjectProperty<YearMonth> periodYearMonthProperty() {
-        return periodYearMonth;
+        if (periodYearMonthProperty == null) {
+            periodYearMonthProperty = new SimpleObjectProperty<>(periodYearMonth);
+        }
+        return periodYearMonthProperty;
     }
 
     public void setPeriodYearMonth(YearMonth periodYearMonth) {
-        this.periodYearMonth.set(periodYearMonth);
+        if (periodYearMonthProperty != null) {
+            periodYearMonthProperty.set(periodYearMonth);
+        } else {
+            this.periodYearMonth = periodYearMonth;
+        }
     }
 
     public boolean isActive() {
-        return active.get();
+        return activeProperty != null ? activeProperty.get() : active;
     }
 
     public BooleanProperty activeProperty() {
-        return active;
+        if (activeProperty == null) {
+            activeProperty = new SimpleBooleanProperty(active);
+        }
+        return activeProperty;
     }
 
     public void setActive(boolean active) {
-        this.active.set(active);
+        if (activeProperty != null) {
+            activeProperty.set(active);
+        } else {
+            this.active = active;
+        }
     }
 
     // Método para guardar un nuevo presupuesto en la base de datos
     public boolean save(int userId) {
-        String sql = "INSERT INTO budgets (user_id, category, limit_amount, period_year_month, active) VALUES (?, ?, ?, ?, ?)";
-
         try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.BUDGET_INSERT)) {
 
             stmt.setInt(1, userId);
-            stmt.setString(2, this.getCategory());
-            stmt.setDouble(3, this.getLimitAmount());
-            stmt.setString(4, this.getPeriodYearMonth().toString()); // Almacenamos como YYYY-MM
+            stmt.setInt(2, CategoryDictionary.idFor(conn, userId, this.getCategory()));
+            this.getLimitAmount().bind(stmt, 3);
+            stmt.setDate(4, periodDate(this.getPeriodYearMonth())); // Primer día del mes
             stmt.setBoolean(5, this.isActive());
 
             int affectedRows = stmt.executeUpdate();
@@ -130,6 +193,8 @@ public class Budget {
                     if (generatedKeys.next()) {
                         this.setId(generatedKeys.getInt(1));
                         this.setUserId(userId);
+                        cacheWrite(this);
+                        DomainEventBus.publish(new DomainEvent.BudgetChanged(userId, getId()));
                         return true;
                     }
                 }
@@ -142,19 +207,21 @@ public class Budget {
 
     // Método para actualizar un presupuesto existente
     public boolean update() {
-        String sql = "UPDATE budgets SET category = ?, limit_amount = ?, period_year_month = ?, active = ? WHERE id = ? AND user_id = ?";
-
         try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.BUDGET_UPDATE)) {
 
-            stmt.setString(1, this.getCategory());
-            stmt.setDouble(2, this.getLimitAmount());
-            stmt.setString(3, this.getPeriodYearMonth().toString());
+            stmt.setInt(1, CategoryDictionary.idFor(conn, this.getUserId(), this.getCategory()));
+            this.getLimitAmount().bind(stmt, 2);
+            stmt.setDate(3, periodDate(this.getPeriodYearMonth()));
             stmt.setBoolean(4, this.isActive());
             stmt.setInt(5, this.getId());
             stmt.setInt(6, this.getUserId());
 
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                cacheWrite(this);
+                DomainEventBus.publish(new DomainEvent.BudgetChanged(getUserId(), getId()));
+                return true;
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -163,15 +230,18 @@ public class Budget {
 
     // Método para eliminar un presupuesto
     public boolean delete() {
-        String sql = "DELETE FROM budgets WHERE id = ? AND user_id = ?";
-
         try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.BUDGET_DELETE)) {
 
             stmt.setInt(1, this.getId());
             stmt.setInt(2, this.getUserId());
 
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                int deletedId = this.getId();
+                ACTIVE_BY_USER.update(this.getUserId(), budgets -> withoutBudget(budgets, deletedId));
+                DomainEventBus.publish(new DomainEvent.BudgetChanged(getUserId(), deletedId));
+                return true;
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -179,61 +249,19 @@ public class Budget {
     }
 
     // Método estático para obtener todos los presupuestos activos de un usuario
+    // (desde la caché una vez cargados)
     public static List<Budget> getAllActive(int userId) {
-        List<Budget> budgets = new ArrayList<>();
-        String sql = "SELECT * FROM budgets WHERE user_id = ? AND active = true ORDER BY period_year_month DESC";
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                YearMonth yearMonth = YearMonth.parse(rs.getString("period_year_month"));
-                Budget budget = new Budget(
-                    rs.getInt("id"),
-                    rs.getInt("user_id"),
-                    rs.getString("category"),
-                    rs.getDouble("limit_amount"),
-                    yearMonth,
-                    rs.getBoolean("active")
-                );
-                budgets.add(budget);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return budgets;
+        return copies(cachedActive(userId));
     }
 
     // Método estático para obtener presupuestos del mes actual
     public static List<Budget> getCurrentMonthBudgets(int userId) {
-        List<Budget> budgets = new ArrayList<>();
         YearMonth currentYearMonth = YearMonth.now();
-        String sql = "SELECT * FROM budgets WHERE user_id = ? AND period_year_month = ? AND active = true";
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, userId);
-            stmt.setString(2, currentYearMonth.toString());
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                YearMonth yearMonth = YearMonth.parse(rs.getString("period_year_month"));
-                Budget budget = new Budget(
-                    rs.getInt("id"),
-                    rs.getInt("user_id"),
-                    rs.getString("category"),
-                    rs.getDouble("limit_amount"),
-                    yearMonth,
-                    rs.getBoolean("active")
-                );
-                budgets.add(budget);
+        List<Budget> budgets = new ArrayList<>();
+        for (Budget budget : cachedActive(userId)) {
+            if (budget.getPeriodYearMonth().equals(currentYearMonth)) {
+                budgets.add(budget.copy());
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
         return budgets;
     }
@@ -245,80 +273,207 @@ public class Budget {
             return false; // No hay presupuesto definido para esta categoría
         }
 
-        double spent = getSpentAmountForCategoryInMonth(userId, category, yearMonth);
-        return spent > budget.getLimitAmount();
+        Money spent = getSpentAmountForCategoryInMonth(userId, category, yearMonth);
+        return spent.isGreaterThan(budget.getLimitAmount());
     }
 
     // Método para obtener el presupuesto específico para una categoría y mes
     public static Budget getBudgetForCategoryAndMonth(int userId, String category, YearMonth yearMonth) {
-        String sql = "SELECT * FROM budgets WHERE user_id = ? AND category = ? AND period_year_month = ? AND active = true";
+        for (Budget budget : cachedActive(userId)) {
+            if (budget.getPeriodYearMonth().equals(yearMonth) && budget.getCategory().equals(category)) {
+                return budget.copy();
+            }
+        }
+        return null;
+    }
+
+    // Presupuestos activos guardados en caché (no se deben modificar ni entregar fuera de esta clase)
+    private static List<Budget> cachedActive(int userId) {
+        try {
+            return ACTIVE_BY_USER.getOrLoad(userId, Budget::loadActive);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return List.of();
+        }
+    }
+
+    // Los presupuestos en caché guardan el nombre de la categoría; al renombrarla hay que recargarlos
+    static void invalidateCache(int userId) {
+        ACTIVE_BY_USER.invalidate(userId);
+    }
+
+    private static List<Budget> loadActive(int userId) throws Exception {
+        List<Budget> budgets = new ArrayList<>();
 
         try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.BUDGET_ACTIVE_BY_USER)) {
 
             stmt.setInt(1, userId);
-            stmt.setString(2, category);
-            stmt.setString(3, yearMonth.toString());
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                YearMonth ym = YearMonth.parse(rs.getString("period_year_month"));
-                return new Budget(
-                    rs.getInt("id"),
-                    rs.getInt("user_id"),
-                    rs.getString("category"),
-                    rs.getDouble("limit_amount"),
-                    ym,
-                    rs.getBoolean("active")
-                );
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    YearMonth yearMonth = YearMonth.from(rs.getDate("period_year_month").toLocalDate());
+                    budgets.add(new Budget(
+                        rs.getInt("id"),
+                        rs.getInt("user_id"),
+                        CategoryDictionary.name(conn, userId, rs.getInt("category_id")),
+                        Money.fromResultSet(rs, "limit_amount"),
+                        yearMonth,
+                        rs.getBoolean("active")
+                    ));
+                }
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
-        return null;
+        return List.copyOf(budgets);
+    }
+
+    // Refleja en la caché un presupuesto recién guardado o actualizado
+    private static void cacheWrite(Budget saved) {
+        Budget copy = saved.copy();
+        ACTIVE_BY_USER.update(saved.getUserId(), budgets -> {
+            List<Budget> updated = new ArrayList<>(withoutBudget(budgets, copy.getId()));
+            if (copy.isActive()) {
+                updated.add(copy);
+                updated.sort(NEWEST_PERIOD_FIRST);
+            }
+            return List.copyOf(updated);
+        });
+    }
+
+    private static List<Budget> withoutBudget(List<Budget> budgets, int budgetId) {
+        List<Budget> remaining = new ArrayList<>(budgets.size());
+        for (Budget budget : budgets) {
+            if (budget.getId() != budgetId) {
+                remaining.add(budget);
+            }
+        }
+        return List.copyOf(remaining);
+    }
+
+    private static List<Budget> copies(List<Budget> budgets) {
+        List<Budget> copies = new ArrayList<>(budgets.size());
+        for (Budget budget : budgets) {
+            copies.add(budget.copy());
+        }
+        return copies;
+    }
+
+    private Budget copy() {
+        return new Budget(getId(), getUserId(), getCategory(), getLimitAmount(), getPeriodYearMonth(), isActive());
     }
 
     // Método para obtener el gasto actual de una categoría en un mes específico
-    public static double getSpentAmountForCategoryInMonth(int userId, String category, YearMonth yearMonth) {
-        String sql = "SELECT SUM(amount) as total FROM transactions " +
-                     "WHERE user_id = ? AND category = ? AND type = 'EXPENSE' " +
-                     "AND date BETWEEN ? AND ?";
+    public static Money getSpentAmountForCategoryInMonth(int userId, String category, YearMonth yearMonth) {
+        return Transaction.getTotalExpensesByCategoryAndMonth(userId, category, yearMonth);
+    }
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    // Método para obtener el gasto de varios presupuestos con una sola consulta al resumen mensual.
+    // Devuelve un mapa id de presupuesto -> gasto en su categoría y mes.
+    public static Map<Integer, Money> spentByBudget(int userId, List<Budget> budgets) {
+        Map<Integer, Money> spentByBudget = new HashMap<>();
+        if (budgets.isEmpty()) {
+            return spentByBudget;
+        }
 
-            LocalDate startDate = yearMonth.atDay(1); // Primer día del mes
-            LocalDate endDate = yearMonth.atEndOfMonth(); // Último día del mes
+        // Rango de meses y categorías que cubren todos los presupuestos
+        Set<String> categories = new LinkedHashSet<>();
+        YearMonth firstMonth = null;
+        YearMonth lastMonth = null;
+        for (Budget budget : budgets) {
+            categories.add(budget.getCategory());
+            YearMonth month = budget.getPeriodYearMonth();
+            if (firstMonth == null || month.isBefore(firstMonth)) {
+                firstMonth = month;
+            }
+            if (lastMonth == null || month.isAfter(lastMonth)) {
+                lastMonth = month;
+            }
+        }
 
-            stmt.setInt(1, userId);
-            stmt.setString(2, category);
-            stmt.setDate(3, java.sql.Date.valueOf(startDate));
-            stmt.setDate(4, java.sql.Date.valueOf(endDate));
+        Map<String, Money> totals = new HashMap<>();
+        try (Connection conn = Database.getConnection();
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.ROLLUP_EXPENSES_FOR_BUDGETS)) {
 
-            ResultSet rs = stmt.executeQuery();
+            List<Integer> categoryIds = new ArrayList<>();
+            for (String category : categories) {
+                int categoryId = CategoryDictionary.findId(conn, userId, category);
+                if (categoryId > 0) {
+                    categoryIds.add(categoryId);
+                }
+            }
 
-            if (rs.next()) {
-                return rs.getDouble("total");
+            stmt.setInt(1, userId);
+            stmt.setArray(2, conn.createArrayOf("integer", categoryIds.toArray()));
+            stmt.setDate(3, java.sql.Date.valueOf(firstMonth.atDay(1)));
+            stmt.setDate(4, java.sql.Date.valueOf(lastMonth.atDay(1)));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    YearMonth month = YearMonth.from(rs.getDate("month").toLocalDate());
+                    String category = CategoryDictionary.name(conn, userId, rs.getInt("category_id"));
+                    totals.put(spendKey(category, month), Money.fromResultSet(rs, "total"));
+                }
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
-        return 0.0;
+
+        for (Budget budget : budgets) {
+            spentByBudget.put(budget.getId(),
+                totals.getOrDefault(spendKey(budget.getCategory(), budget.getPeriodYearMonth()), Money.ZERO));
+        }
+        return spentByBudget;
+    }
+
+    // El periodo se guarda como DATE con el primer día del mes
+    private static java.sql.Date periodDate(YearMonth yearMonth) {
+        return java.sql.Date.valueOf(yearMonth.atDay(1));
+    }
+
+    private static String spendKey(String category, YearMonth month) {
+        return month + "|" + category;
     }
 
     // Método para obtener todas las categorías que han excedido su presupuesto en el mes actual
     public static List<Budget> getExceededBudgets(int userId) {
         List<Budget> exceededBudgets = new ArrayList<>();
-        YearMonth currentMonth = YearMonth.now();
 
         List<Budget> currentBudgets = getCurrentMonthBudgets(userId);
+        Map<Integer, Money> spentByBudget = spentByBudget(userId, currentBudgets);
         for (Budget budget : currentBudgets) {
-            double spent = getSpentAmountForCategoryInMonth(userId, budget.getCategory(), currentMonth);
-            if (spent > budget.getLimitAmount()) {
+            if (spentByBudget.get(budget.getId()).isGreaterThan(budget.getLimitAmount())) {
                 exceededBudgets.add(budget);
             }
         }
 
         return exceededBudgets;
     }
+
+    // Variantes asíncronas: se ejecutan en el DataExecutor, fuera del hilo de JavaFX
+    public CompletableFuture<Boolean> saveAsync(int userId) {
+        return DataExecutor.query("Budget.save", () -> save(userId));
+    }
+
+    public CompletableFuture<Boolean> updateAsync() {
+        return DataExecutor.query("Budget.update", this::update);
+    }
+
+    public CompletableFuture<Boolean> deleteAsync() {
+        return DataExecutor.query("Budget.delete", this::delete);
+    }
+
+    public static CompletableFuture<List<Budget>> getAllActiveAsync(int userId) {
+        return DataExecutor.query("Budget.getAllActive", () -> getAllActive(userId));
+    }
+
+    public static CompletableFuture<List<Budget>> getCurrentMonthBudgetsAsync(int userId) {
+        return DataExecutor.query("Budget.getCurrentMonthBudgets", () -> getCurrentMonthBudgets(userId));
+    }
+
+    public static CompletableFuture<List<Budget>> getExceededBudgetsAsync(int userId) {
+        return DataExecutor.query("Budget.getExceededBudgets", () -> getExceededBudgets(userId));
+    }
+
+    public static CompletableFuture<Map<Integer, Money>> spentByBudgetAsync(int userId, List<Budget> budgets) {
+        return DataExecutor.query("Budget.spentByBudget", () -> spentByBudget(userId, budgets));
+    }
 }
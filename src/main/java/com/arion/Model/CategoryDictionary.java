@@ -0,0 +1,164 @@
+package com.arion.Model;
+
+import com.arion.Config.DataExecutor;
+import com.arion.Config.Database;
+import com.arion.Config.SqlStatement;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Diccionario en memoria de la tabla categories: nombre <-> id por usuario.
+// Las transacciones, los presupuestos y el resumen mensual guardan solo el id; al leerlos, el
+// nombre se toma de aquí, así todas las filas de una categoría comparten la misma instancia de String.
+// Los métodos que reciben una Connection la usan para las consultas que hagan falta, de modo que
+// se pueden llamar en medio de otra consulta sin pedir una segunda conexión al pool.
+public final class CategoryDictionary {
+
+    // Copia inmutable de las categorías de un usuario; se reemplaza completa al cambiar
+    private record UserCategories(Map<String, Integer> idsByName, Map<Integer, String> namesById) {}
+
+    private static final ConcurrentHashMap<Integer, UserCategories> BY_USER = new ConcurrentHashMap<>();
+    // Cuenta las invalidaciones: una carga que empezó antes de una no guarda su resultado (como en
+    // ExpiringCache), para no volver a dejar una lista sin la categoría recién creada.
+    // Las lecturas siguen sin bloqueo; solo guardar e invalidar se sincronizan con LOCK.
+    private static final Object LOCK = new Object();
+    private static long version;
+
+    private CategoryDictionary() {}
+
+    // Nombre de una categoría del usuario. Si el id no está (la creó otra instancia), se recarga.
+    public static String name(Connection conn, int userId, int categoryId) throws SQLException {
+        String name = categories(conn, userId).namesById().get(categoryId);
+        if (name == null) {
+            invalidate(userId);
+            name = categories(conn, userId).namesById().get(categoryId);
+            if (name == null) {
+                throw new SQLException("Categoría desconocida: " + categoryId);
+            }
+        }
+        return name;
+    }
+
+    // Id de una categoría existente, o -1 si el usuario no la tiene
+    public static int findId(Connection conn, int userId, String name) throws SQLException {
+        Integer id = categories(conn, userId).idsByName().get(name);
+        return id != null ? id : -1;
+    }
+
+    // Id de la categoría, creándola si no existe. Como la creación puede quedar dentro de una
+    // transacción del llamador que luego se deshaga, la nueva categoría no se agrega al diccionario:
+    // se invalida y la próxima lectura la trae de la base.
+    public static int idFor(Connection conn, int userId, String name) throws SQLException {
+        int id = findId(conn, userId, name);
+        if (id > 0) {
+            return id;
+        }
+
+        try (PreparedStatement stmt = Database.prepare(conn, SqlStatement.CATEGORY_GET_OR_CREATE)) {
+            stmt.setInt(1, userId);
+            stmt.setString(2, name);
+            stmt.setInt(3, userId);
+            stmt.setString(4, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                id = rs.getInt("id");
+            }
+        }
+        invalidate(userId);
+        return id;
+    }
+
+    // Ids de las categorías cuyo nombre contiene (o empieza con) el texto, sin distinguir mayúsculas
+    public static List<Integer> matching(Connection conn, int userId, String text, boolean prefixOnly) throws SQLException {
+        String term = text.toLowerCase(Locale.ROOT);
+        List<Integer> ids = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : categories(conn, userId).idsByName().entrySet()) {
+            String name = entry.getKey().toLowerCase(Locale.ROOT);
+            if (prefixOnly ? name.startsWith(term) : name.contains(term)) {
+                ids.add(entry.getValue());
+            }
+        }
+        return ids;
+    }
+
+    // Nombres de las categorías del usuario, ordenados
+    public static List<String> names(int userId) {
+        try (Connection conn = Database.getConnection()) {
+            List<String> names = new ArrayList<>(categories(conn, userId).idsByName().keySet());
+            Collections.sort(names);
+            return names;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return List.of();
+        }
+    }
+
+    public static CompletableFuture<List<String>> namesAsync(int userId) {
+        return DataExecutor.query("CategoryDictionary.names", () -> names(userId));
+    }
+
+    // Cambia el nombre de una categoría en todas las transacciones y presupuestos del usuario.
+    // Devuelve false si no existe o si ya hay otra con el nuevo nombre.
+    public static boolean rename(int userId, String oldName, String newName) {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.CATEGORY_RENAME)) {
+
+            stmt.setString(1, newName);
+            stmt.setInt(2, userId);
+            stmt.setString(3, oldName);
+            return stmt.executeUpdate() > 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            invalidate(userId);
+            Budget.invalidateCache(userId);
+        }
+    }
+
+    // Para escrituras que crean categorías fuera de idFor (por ejemplo, la importación de extractos)
+    static void invalidate(int userId) {
+        synchronized (LOCK) {
+            version++;
+            BY_USER.remove(userId);
+        }
+    }
+
+    private static UserCategories categories(Connection conn, int userId) throws SQLException {
+        UserCategories cached = BY_USER.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long startVersion;
+        synchronized (LOCK) {
+            startVersion = version;
+        }
+
+        Map<String, Integer> idsByName = new HashMap<>();
+        Map<Integer, String> namesById = new HashMap<>();
+        try (PreparedStatement stmt = Database.prepare(conn, SqlStatement.CATEGORY_ALL_BY_USER)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString("name");
+                    idsByName.put(name, rs.getInt("id"));
+                    namesById.put(rs.getInt("id"), name);
+                }
+            }
+        }
+
+        UserCategories loaded = new UserCategories(Map.copyOf(idsByName), Map.copyOf(namesById));
+        synchronized (LOCK) {
+            if (version == startVersion) {
+                BY_USER.put(userId, loaded);
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,99 @@
+package com.arion.Model;
+
+import com.arion.Config.DataExecutor;
+import com.arion.Config.Database;
+import com.arion.Config.SqlStatement;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Todo lo que muestra el dashboard, leído con una sola consulta: transacciones recientes,
+// totales de ingresos y gastos, y gastos por categoría. Los totales se agregan en el servidor
+// a partir del resumen mensual, de modo que nunca se traen filas sueltas para el gráfico.
+public record DashboardSnapshot(List<Transaction> recentTransactions,
+                                Money totalIncome,
+                                Money totalExpenses,
+                                Map<String, Money> expensesByCategory) {
+
+    // Carga adelantada al iniciar sesión, mientras se construye la escena del dashboard. La toma el
+    // siguiente loadAsync con los mismos argumentos; pasado este tiempo se descarta por vieja.
+    private record Prefetch(int userId, int recentLimit, long startedAt, CompletableFuture<DashboardSnapshot> future) {}
+
+    private static final long PREFETCH_MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final AtomicReference<Prefetch> PREFETCH = new AtomicReference<>();
+
+    public static DashboardSnapshot load(int userId, int recentLimit) {
+        List<Transaction> recent = new ArrayList<>();
+        Money income = Money.ZERO;
+        Money expenses = Money.ZERO;
+        Map<String, Money> byCategory = new LinkedHashMap<>();
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.DASHBOARD_SNAPSHOT)) {
+
+            stmt.setInt(1, userId);
+            stmt.setInt(2, recentLimit);
+            stmt.setInt(3, userId);
+            stmt.setInt(4, userId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    switch (rs.getString("kind")) {
+                        case "R":
+                            recent.add(new Transaction(
+                                rs.getInt("id"),
+                                rs.getInt("user_id"),
+                                rs.getString("description"),
+                                CategoryDictionary.name(conn, userId, rs.getInt("category_id")),
+                                rs.getDate("date").toLocalDate(),
+                                Money.fromResultSet(rs, "amount"),
+                                Transaction.TransactionType.valueOf(rs.getString("type")),
+                                rs.getString("note")
+                            ));
+                            break;
+                        case "T":
+                            if (Transaction.TransactionType.INCOME.name().equals(rs.getString("type"))) {
+                                income = Money.fromResultSet(rs, "total");
+                            } else {
+                                expenses = Money.fromResultSet(rs, "total");
+                            }
+                            break;
+                        default:
+                            byCategory.put(CategoryDictionary.name(conn, userId, rs.getInt("category_id")), Money.fromResultSet(rs, "total"));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return new DashboardSnapshot(Collections.unmodifiableList(recent), income, expenses,
+                                     Collections.unmodifiableMap(byCategory));
+    }
+
+    public static CompletableFuture<DashboardSnapshot> loadAsync(int userId, int recentLimit) {
+        Prefetch prefetched = PREFETCH.getAndSet(null);
+        if (prefetched != null && prefetched.userId() == userId && prefetched.recentLimit() == recentLimit
+                && System.nanoTime() - prefetched.startedAt() < PREFETCH_MAX_AGE_NANOS
+                && !prefetched.future().isCompletedExceptionally()) {
+            return prefetched.future();
+        }
+        return DataExecutor.query("DashboardSnapshot.load", () -> load(userId, recentLimit));
+    }
+
+    // Empieza la carga ya, para que la use el próximo loadAsync(userId, recentLimit)
+    public static void prefetch(int userId, int recentLimit) {
+        CompletableFuture<DashboardSnapshot> future =
+            DataExecutor.query("DashboardSnapshot.prefetch", () -> load(userId, recentLimit));
+        Prefetch previous = PREFETCH.getAndSet(new Prefetch(userId, recentLimit, System.nanoTime(), future));
+        if (previous != null) {
+            previous.future().cancel(true);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.arion.Model;
+
+import java.time.LocalDate;
+
+// Cambios de datos que publican los modelos (DomainEventBus) después de confirmarlos en la base.
+// Las pantallas se suscriben a los que les interesan en lugar de recibir callbacks de otras pantallas.
+public sealed interface DomainEvent {
+
+    int userId();
+
+    record TransactionCreated(int userId, Transaction transaction) implements DomainEvent {}
+
+    // 'previous' tiene los valores anteriores que afectan a totales y orden, para aplicar el cambio
+    // como diferencia sin recargar
+    record TransactionUpdated(int userId, Transaction transaction, Previous previous) implements DomainEvent {}
+
+    record TransactionDeleted(int userId, Transaction transaction) implements DomainEvent {}
+
+    // Importación de un extracto: un solo evento para todas las filas importadas
+    record TransactionsImported(int userId, int count) implements DomainEvent {}
+
+    record BudgetChanged(int userId, int budgetId) implements DomainEvent {}
+
+    record Previous(LocalDate date, String category, Money amount, Transaction.TransactionType type) {}
+}
@@ -0,0 +1,157 @@
+package com.arion.Model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Importe exacto en centavos (las columnas de montos son DECIMAL(10,2)). Evita el error de
+// redondeo de double al sumar historiales largos; las sumas y comparaciones trabajan sobre un long.
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final int SCALE = 2;
+
+    private final long cents;
+
+    // Texto de format(), calculado la primera vez: las celdas vuelven a pedirlo en cada desplazamiento.
+    // Si dos hilos lo calculan a la vez, ambos obtienen el mismo texto.
+    private String formatted;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    // Convierte un valor decimal, redondeando a centavos
+    public static Money of(BigDecimal value) {
+        if (value == null) {
+            return ZERO;
+        }
+        return ofCents(value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    // Interpreta el texto ingresado por el usuario ("1234.5"); lanza NumberFormatException si no es un número
+    public static Money parse(String text) {
+        if (text == null) {
+            throw new NumberFormatException("Monto vacío");
+        }
+        return of(new BigDecimal(text.trim()));
+    }
+
+    // Lee una columna DECIMAL sin pasar por double (NULL se lee como cero)
+    public static Money fromResultSet(ResultSet rs, String column) throws SQLException {
+        return of(rs.getBigDecimal(column));
+    }
+
+    public void bind(PreparedStatement stmt, int index) throws SQLException {
+        stmt.setBigDecimal(index, toBigDecimal());
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    // Solo para componentes que requieren double (por ejemplo PieChart)
+    public double toDouble() {
+        return cents / 100.0;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public Money abs() {
+        return cents < 0 ? ofCents(-cents) : this;
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return cents > other.cents;
+    }
+
+    // Proporción this / other (0 si other es cero), para porcentajes y barras de progreso
+    public double ratioTo(Money other) {
+        return other.cents == 0 ? 0.0 : (double) cents / other.cents;
+    }
+
+    // Formato de moneda "$1,234.56" (o "-$1,234.56"), sin DecimalFormat
+    public String format() {
+        String text = formatted;
+        if (text == null) {
+            text = formatCents();
+            formatted = text;
+        }
+        return text;
+    }
+
+    private String formatCents() {
+        long absolute = Math.abs(cents);
+        long units = absolute / 100;
+        int fraction = (int) (absolute % 100);
+
+        StringBuilder digits = new StringBuilder(Long.toString(units));
+        for (int i = digits.length() - 3; i > 0; i -= 3) {
+            digits.insert(i, ',');
+        }
+
+        StringBuilder text = new StringBuilder(digits.length() + 5);
+        if (cents < 0) {
+            text.append('-');
+        }
+        text.append('$').append(digits).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money && ((Money) o).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    // Valor plano con dos decimales ("1234.50"), para campos de texto
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
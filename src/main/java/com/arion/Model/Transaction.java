@@ -1,10 +1,20 @@
 package com.arion.Model;
 
+import com.arion.Config.DataExecutor;
 import com.arion.Config.Database;
+import com.arion.Config.DomainEventBus;
+import com.arion.Config.SqlStatement;
 import java.time.LocalDate;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 import javafx.beans.property.*;
 
 public class Transaction {
@@ -13,154 +23,314 @@ public class Transaction {
         INCOME, EXPENSE
     }
 
-    // Properties para JavaFX binding
-    private final IntegerProperty id;
-    private final IntegerProperty userId;
-    private final StringProperty description;
-    private final StringProperty category;
-    private final ObjectProperty<LocalDate> date;
-    private final DoubleProperty amount;
-    private final ObjectProperty<TransactionType> type;
-    private final StringProperty note;
+    // Columnas por las que se puede ordenar y paginar la lista de transacciones
+    public enum SortField {
+        DATE("t.date"),
+        DESCRIPTION("COALESCE(t.description, '')"),
+        CATEGORY("c.name"),
+        AMOUNT("t.amount");
+
+        private final String column;
+
+        SortField(String column) {
+            this.column = column;
+        }
+
+        // Valor de la columna para una transacción, usado como cursor de la paginación
+        private Object keyOf(Transaction transaction) {
+            switch (this) {
+                case DATE:
+                    return java.sql.Date.valueOf(transaction.getDate());
+                case DESCRIPTION:
+                    return transaction.getDescription() != null ? transaction.getDescription() : "";
+                case CATEGORY:
+                    return transaction.getCategory();
+                default:
+                    return transaction.getAmount().toBigDecimal();
+            }
+        }
+    }
+
+    // Búsqueda de texto en descripción, categoría y nota. Con TRIGRAM_MIN_LENGTH caracteres o más
+    // se busca como subcadena (índices pg_trgm); con menos, como prefijo (índices text_pattern_ops).
+    // Ver db/migration/V3__search_indexes.sql. Las categorías que coinciden se resuelven en memoria
+    // con CategoryDictionary y se filtran por id.
+    private static final int TRIGRAM_MIN_LENGTH = 3;
+    private static final String SUBSTRING_SEARCH = " AND (t.description ILIKE ? OR t.category_id = ANY(?) OR t.note ILIKE ?)";
+    private static final String PREFIX_SEARCH = " AND (lower(t.description) LIKE ? OR t.category_id = ANY(?) OR lower(t.note) LIKE ?)";
+
+    // Orden y filtro de una consulta paginada
+    public record PageQuery(SortField sortField, boolean ascending, String filter) {
+        public static PageQuery newestFirst() {
+            return new PageQuery(SortField.DATE, false, "");
+        }
+
+        public boolean hasFilter() {
+            return filter != null && !filter.isBlank();
+        }
+
+        // Mismo criterio que el filtro SQL, para decidir en memoria si una transacción nueva
+        // o editada pertenece a la lista cargada
+        public boolean matches(Transaction transaction) {
+            if (!hasFilter()) {
+                return true;
+            }
+            String term = filter.trim().toLowerCase(Locale.ROOT);
+            boolean prefixOnly = term.length() < TRIGRAM_MIN_LENGTH;
+            return containsTerm(transaction.getDescription(), term, prefixOnly)
+                || containsTerm(transaction.getCategory(), term, prefixOnly)
+                || containsTerm(transaction.getNote(), term, prefixOnly);
+        }
+
+        // Mismo orden que ORDER BY (columna y luego id). Los textos se comparan sin distinguir
+        // mayúsculas, aproximando la intercalación de la base.
+        public Comparator<Transaction> order() {
+            Comparator<Transaction> byColumn;
+            switch (sortField) {
+                case DESCRIPTION:
+                    byColumn = Comparator.comparing(t -> t.getDescription() != null ? t.getDescription() : "",
+                                                    String.CASE_INSENSITIVE_ORDER);
+                    break;
+                case CATEGORY:
+                    byColumn = Comparator.comparing(Transaction::getCategory, String.CASE_INSENSITIVE_ORDER);
+                    break;
+                case AMOUNT:
+                    byColumn = Comparator.comparing(Transaction::getAmount);
+                    break;
+                default:
+                    byColumn = Comparator.comparing(Transaction::getDate);
+            }
+            Comparator<Transaction> order = byColumn.thenComparingInt(Transaction::getId);
+            return ascending ? order : order.reversed();
+        }
+
+        private static boolean containsTerm(String text, String term, boolean prefixOnly) {
+            if (text == null) {
+                return false;
+            }
+            String value = text.toLowerCase(Locale.ROOT);
+            return prefixOnly ? value.startsWith(term) : value.contains(term);
+        }
+    }
+
+    // Valores en campos simples; la propiedad JavaFX de cada uno se crea en la primera llamada
+    // a xxxProperty() (solo las filas que se muestran en una tabla la necesitan). Una vez creada,
+    // la propiedad es la que guarda el valor, así los getters y setters siguen a las celdas enlazadas.
+    private int id;
+    private int userId;
+    private String description;
+    private String category;
+    private LocalDate date;
+    private Money amount;
+    private TransactionType type;
+    private String note;
+
+    private IntegerProperty idProperty;
+    private IntegerProperty userIdProperty;
+    private StringProperty descriptionProperty;
+    private StringProperty categoryProperty;
+    private ObjectProperty<LocalDate> dateProperty;
+    private ObjectProperty<Money> amountProperty;
+    private ObjectProperty<TransactionType> typeProperty;
+    private StringProperty noteProperty;
 
     // Constructor principal con todas las propiedades
-    public Transaction(String description, String category, LocalDate date, double amount, TransactionType type, String note) {
-        this.id = new SimpleIntegerProperty(0);
-        this.userId = new SimpleIntegerProperty(0);
-        this.description = new SimpleStringProperty(description);
-        this.category = new SimpleStringProperty(category);
-        this.date = new SimpleObjectProperty<>(date);
-        this.amount = new SimpleDoubleProperty(amount);
-        this.type = new SimpleObjectProperty<>(type);
-        this.note = new SimpleStringProperty(note != null ? note : "");
+    public Transaction(String description, String category, LocalDate date, Money amount, TransactionType type, String note) {
+        this(0, 0, description, category, date, amount, type, note);
     }
 
     // Constructor con ID (para transacciones existentes)
-    public Transaction(int id, int userId, String description, String category, LocalDate date, double amount, TransactionType type, String note) {
-        this.id = new SimpleIntegerProperty(id);
-        this.userId = new SimpleIntegerProperty(userId);
-        this.description = new SimpleStringProperty(description);
-        this.category = new SimpleStringProperty(category);
-        this.date = new SimpleObjectProperty<>(date);
-        this.amount = new SimpleDoubleProperty(amount);
-        this.type = new SimpleObjectProperty<>(type);
-        this.note = new SimpleStringProperty(note != null ? note : "");
+    public Transaction(int id, int userId, String description, String category, LocalDate date, Money amount, TransactionType type, String note) {
+        this.id = id;
+        this.userId = userId;
+        this.description = description;
+        this.category = category;
+        this.date = date;
+        this.amount = amount;
+        this.type = type;
+        this.note = note != null ? note : "";
     }
 
     // Constructor simplificado sin nota
-    public Transaction(String description, String category, LocalDate date, double amount, TransactionType type) {
+    public Transaction(String description, String category, LocalDate date, Money amount, TransactionType type) {
         this(description, category, date, amount, type, "");
     }
 
     // Constructor de compatibilidad para el DashboardViewController existente
-    public Transaction(String category, String dateStr, double amount, boolean isIncome) {
-        this.id = new SimpleIntegerProperty(0);
-        this.userId = new SimpleIntegerProperty(0);
-        this.description = new SimpleStringProperty(category);
-        this.category = new SimpleStringProperty(category);
-        this.date = new SimpleObjectProperty<>(LocalDate.now()); // Usar fecha actual por defecto
-        this.amount = new SimpleDoubleProperty(Math.abs(amount)); // Siempre positivo
-        this.type = new SimpleObjectProperty<>(isIncome ? TransactionType.INCOME : TransactionType.EXPENSE);
-        this.note = new SimpleStringProperty("");
+    public Transaction(String category, String dateStr, Money amount, boolean isIncome) {
+        // Fecha actual por defecto y monto siempre positivo
+        this(category, category, LocalDate.now(), amount.abs(), isIncome ? TransactionType.INCOME : TransactionType.EXPENSE, "");
     }
 
     // Getters simples
     public int getId() {
-        return id.get();
+        return idProperty != null ? idProperty.get() : id;
     }
 
     public int getUserId() {
-        return userId.get();
+        return userIdProperty != null ? userIdProperty.get() : userId;
     }
 
     public String getDescription() {
-        return description.get();
+        return descriptionProperty != null ? descriptionProperty.get() : description;
     }
 
     public String getCategory() {
-        return category.get();
+        return categoryProperty != null ? categoryProperty.get() : category;
     }
 
     public LocalDate getDate() {
-        return date.get();
+        return dateProperty != null ? dateProperty.get() : date;
     }
 
-    public double getAmount() {
-        return amount.get();
+    public Money getAmount() {
+        return amountProperty != null ? amountProperty.get() : amount;
     }
 
     public TransactionType getType() {
-        return type.get();
+        return typeProperty != null ? typeProperty.get() : type;
     }
 
     public String getNote() {
-        return note.get();
+        return noteProperty != null ? noteProperty.get() : note;
     }
 
     // Property getters para JavaFX binding
     public IntegerProperty idProperty() {
-        return id;
+        if (idProperty == null) {
+            idProperty = new SimpleIntegerProperty(id);
+        }
+        return idProperty;
     }
 
     public IntegerProperty userIdProperty() {
-        return userId;
+        if (userIdProperty == null) {
+            userIdProperty = new SimpleIntegerProperty(userId);
+        }
+        return userIdProperty;
     }
 
     public StringProperty descriptionProperty() {
-        return description;
+        if (descriptionProperty == null) {
+            descriptionProperty = new SimpleStringProperty(description);
+        }
+        return descriptionProperty;
     }
 
     public StringProperty categoryProperty() {
-        return category;
+        if (categoryProperty == null) {
+            categoryProperty = new SimpleStringProperty(category);
+        }
+        return categoryProperty;
     }
 
     public ObjectProperty<LocalDate> dateProperty() {
-        return date;
+        if (dateProperty == null) {
+            dateProperty = new SimpleObjectProperty<>(date);
+        }
+        return dateProperty;
     }
 
-    public DoubleProperty amountProperty() {
-        return amount;
+    public ObjectProperty<Money> amountProperty() {
+        if (amountProperty == null) {
+            amountProperty = new SimpleObjectProperty<>(amount);
+        }
+        return amountProperty;
     }
 
     public ObjectProperty<TransactionType> typeProperty() {
-        return type;
+        if (typeProperty == null) {
+            typeProperty = new SimpleObjectProperty<>(type);
+        }
+        return typeProperty;
     }
 
     public StringProperty noteProperty() {
-        return note;
+        if (noteProperty == null) {
+            noteProperty = new SimpleStringProperty(note);
+        }
+        return noteProperty;
     }
 
     // Setters
     public void setId(int id) {
-        this.id.set(id);
+        if (idProperty != null) {
+            idProperty.set(id);
+        } else {
+            this.id = id;
+        }
     }
 
     public void setUserId(int userId) {
-        this.userId.set(userId);
+        if (userIdProperty != null) {
+            userIdProperty.set(userId);
+        } else {
+            this.userId = userId;
+        }
     }
 
     public void setDescription(String description) {
-        this.description.set(description);
+        if (descriptionProperty != null) {
+            descriptionProperty.set(description);
+        } else {
+            this.description = description;
+        }
     }
 
     public void setCategory(String category) {
-        this.category.set(category);
+        if (categoryProperty != null) {
+            categoryProperty.set(category);
+        } else {
+            this.category = category;
+        }
     }
 
     public void setDate(LocalDate date) {
-        this.date.set(date);
+        if (dateProperty != null) {
+            dateProperty.set(date);
+        } else {
+            this.date = date;
+        }
     }
 
-    public void setAmount(double amount) {
-        this.amount.set(amount);
+    public void setAmount(Money amount) {
+        if (amountProperty != null) {
+            amountProperty.set(amount);
+        } else {
+            this.amount = amount;
+        }
     }
 
     public void setType(TransactionType type) {
-        this.type.set(type);
+        if (typeProperty != null) {
+            typeProperty.set(type);
+        } else {
+            this.type = type;
+        }
     }
 
     public void setNote(String note) {
-        this.note.set(note);
+        if (noteProperty != null) {
+            noteProperty.set(note);
+        } else {
+            this.note = note;
+        }
+    }
+
+    // Copia de trabajo para un formulario de edición: la fila que se muestra no cambia hasta que
+    // la actualización se confirma (ver copyValuesFrom)
+    public Transaction copy() {
+        return new Transaction(getId(), getUserId(), getDescription(), getCategory(), getDate(), getAmount(), getType(), getNote());
+    }
+
+    // Pasa a esta fila los valores guardados de otra copia de la misma transacción
+    public void copyValuesFrom(Transaction saved) {
+        setDescription(saved.getDescription());
+        setCategory(saved.getCategory());
+        setDate(saved.getDate());
+        setAmount(saved.getAmount());
+        setType(saved.getType());
+        setNote(saved.getNote());
     }
 
     // Método utilizado por el ListView en el dashboard
@@ -168,72 +338,120 @@ public class Transaction {
         return getDate() != null ? getDate().toString() : "";
     }
 
-    // Método para guardar una transacción en la base de datos
+    // Método para guardar una transacción en la base de datos (y en el resumen mensual)
     public boolean save(int userId) {
-        String sql = "INSERT INTO transactions (user_id, description, category, date, amount, type, note) VALUES (?, ?, ?, ?, ?, ?, ?)";
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setInt(1, userId);
-            stmt.setString(2, getDescription());
-            stmt.setString(3, getCategory());
-            stmt.setDate(4, java.sql.Date.valueOf(getDate()));
-            stmt.setDouble(5, getAmount());
-            stmt.setString(6, getType().name());
-            stmt.setString(7, getNote());
-
-            int affectedRows = stmt.executeUpdate();
-
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        setId(generatedKeys.getInt(1));
-                        setUserId(userId);
-                        return true;
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+
+            int categoryId = CategoryDictionary.idFor(conn, userId, getCategory());
+            try (PreparedStatement stmt = Database.prepare(conn, SqlStatement.TRANSACTION_INSERT)) {
+                stmt.setInt(1, userId);
+                stmt.setString(2, getDescription());
+                stmt.setInt(3, categoryId);
+                stmt.setDate(4, java.sql.Date.valueOf(getDate()));
+                getAmount().bind(stmt, 5);
+                stmt.setString(6, getType().name());
+                stmt.setString(7, getNote());
+
+                int affectedRows = stmt.executeUpdate();
+
+                if (affectedRows > 0) {
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            TransactionRollup.apply(conn, userId, getDate(), categoryId, getType(), getAmount(), 1);
+                            conn.commit();
+                            setId(generatedKeys.getInt(1));
+                            setUserId(userId);
+                            DomainEventBus.publish(new DomainEvent.TransactionCreated(userId, this));
+                            return true;
+                        }
                     }
                 }
             }
+            conn.rollback();
         } catch (Exception e) {
             e.printStackTrace();
         }
+        // idFor pudo crear la categoría dentro de la transacción deshecha
+        CategoryDictionary.invalidate(userId);
         return false;
     }
 
-    // Método para actualizar una transacción existente
+    // Método para actualizar una transacción existente (y mover su importe en el resumen mensual)
     public boolean update() {
-        String sql = "UPDATE transactions SET description = ?, category = ?, date = ?, amount = ?, type = ?, note = ? WHERE id = ? AND user_id = ?";
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, getDescription());
-            stmt.setString(2, getCategory());
-            stmt.setDate(3, java.sql.Date.valueOf(getDate()));
-            stmt.setDouble(4, getAmount());
-            stmt.setString(5, getType().name());
-            stmt.setString(6, getNote());
-            stmt.setInt(7, getId());
-            stmt.setInt(8, getUserId());
-
-            return stmt.executeUpdate() > 0;
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement select = Database.prepare(conn, SqlStatement.TRANSACTION_LOCK_FOR_UPDATE);
+                 PreparedStatement stmt = Database.prepare(conn, SqlStatement.TRANSACTION_UPDATE)) {
+
+                // Valores anteriores, para restarlos del resumen
+                select.setInt(1, getId());
+                select.setInt(2, getUserId());
+                try (ResultSet previous = select.executeQuery()) {
+                    if (previous.next()) {
+                        // Se arman antes de idFor: si crea la categoría nueva, el diccionario no se
+                        // vuelve a cargar en esta conexión, que aún no confirmó esa fila
+                        int previousCategoryId = previous.getInt("category_id");
+                        DomainEvent.Previous before = new DomainEvent.Previous(
+                            previous.getDate("date").toLocalDate(),
+                            CategoryDictionary.name(conn, getUserId(), previousCategoryId),
+                            Money.fromResultSet(previous, "amount"),
+                            TransactionType.valueOf(previous.getString("type")));
+
+                        int categoryId = CategoryDictionary.idFor(conn, getUserId(), getCategory());
+                        stmt.setString(1, getDescription());
+                        stmt.setInt(2, categoryId);
+                        stmt.setDate(3, java.sql.Date.valueOf(getDate()));
+                        getAmount().bind(stmt, 4);
+                        stmt.setString(5, getType().name());
+                        stmt.setString(6, getNote());
+                        stmt.setInt(7, getId());
+                        stmt.setInt(8, getUserId());
+
+                        if (stmt.executeUpdate() > 0) {
+                            TransactionRollup.apply(conn, getUserId(), before.date(), previousCategoryId,
+                                before.type(), before.amount(), -1);
+                            TransactionRollup.apply(conn, getUserId(), getDate(), categoryId, getType(), getAmount(), 1);
+                            conn.commit();
+                            DomainEventBus.publish(new DomainEvent.TransactionUpdated(getUserId(), this, before));
+                            return true;
+                        }
+                    }
+                }
+            }
+            conn.rollback();
         } catch (Exception e) {
             e.printStackTrace();
         }
+        // idFor pudo crear la categoría dentro de la transacción deshecha
+        CategoryDictionary.invalidate(getUserId());
         return false;
     }
 
-    // Método para eliminar una transacción
+    // Método para eliminar una transacción (y restarla del resumen mensual)
     public boolean delete() {
-        String sql = "DELETE FROM transactions WHERE id = ? AND user_id = ?";
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, getId());
-            stmt.setInt(2, getUserId());
-
-            return stmt.executeUpdate() > 0;
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = Database.prepare(conn, SqlStatement.TRANSACTION_DELETE)) {
+                stmt.setInt(1, getId());
+                stmt.setInt(2, getUserId());
+
+                try (ResultSet deleted = stmt.executeQuery()) {
+                    if (deleted.next()) {
+                        TransactionRollup.apply(conn, getUserId(),
+                            deleted.getDate("date").toLocalDate(),
+                            deleted.getInt("category_id"),
+                            TransactionType.valueOf(deleted.getString("type")),
+                            Money.fromResultSet(deleted, "amount"), -1);
+                        conn.commit();
+                        DomainEventBus.publish(new DomainEvent.TransactionDeleted(getUserId(), this));
+                        return true;
+                    }
+                }
+            }
+            conn.rollback();
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -243,26 +461,14 @@ public class Transaction {
     // Método estático para obtener todas las transacciones de un usuario
     public static List<Transaction> getAll(int userId) {
         List<Transaction> transactions = new ArrayList<>();
-        String sql = "SELECT * FROM transactions WHERE user_id = ? ORDER BY date DESC";
-
         try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.TRANSACTION_ALL_BY_USER)) {
 
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Transaction transaction = new Transaction(
-                    rs.getInt("id"),
-                    rs.getInt("user_id"),
-                    rs.getString("description"),
-                    rs.getString("category"),
-                    rs.getDate("date").toLocalDate(),
-                    rs.getDouble("amount"),
-                    TransactionType.valueOf(rs.getString("type")),
-                    rs.getString("note")
-                );
-                transactions.add(transaction);
+                transactions.add(fromResultSet(conn, rs));
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -273,27 +479,15 @@ public class Transaction {
     // Método para obtener transacciones recientes de un usuario
     public static List<Transaction> getRecentTransactionsByUser(int userId, int limit) {
         List<Transaction> transactions = new ArrayList<>();
-        String sql = "SELECT * FROM transactions WHERE user_id = ? ORDER BY date DESC LIMIT ?";
-
         try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.TRANSACTION_RECENT_BY_USER)) {
 
             stmt.setInt(1, userId);
             stmt.setInt(2, limit);
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Transaction transaction = new Transaction(
-                    rs.getInt("id"),
-                    rs.getInt("user_id"),
-                    rs.getString("description"),
-                    rs.getString("category"),
-                    rs.getDate("date").toLocalDate(),
-                    rs.getDouble("amount"),
-                    TransactionType.valueOf(rs.getString("type")),
-                    rs.getString("note")
-                );
-                transactions.add(transaction);
+                transactions.add(fromResultSet(conn, rs));
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -301,83 +495,277 @@ public class Transaction {
         return transactions;
     }
 
-    // Método para obtener todas las transacciones (alias para mantener compatibilidad)
-    public static List<Transaction> getTransactionsByUser(int userId) {
-        return getAll(userId);
+    // Método para obtener una página de transacciones con paginación por cursor (keyset):
+    // devuelve hasta 'limit' filas que siguen a 'after' en el orden pedido (after = null para la primera).
+    // El orden y el filtro se resuelven en SQL.
+    public static List<Transaction> getPage(int userId, PageQuery query, Transaction after, int limit) {
+        return getPage(userId, query, after, false, limit);
+    }
+
+    // Hasta 'limit' filas inmediatamente anteriores a 'before', en el mismo orden que getPage.
+    // Sirve para volver a cargar una página que la tabla descartó al desplazarse hacia abajo.
+    public static List<Transaction> getPageBefore(int userId, PageQuery query, Transaction before, int limit) {
+        List<Transaction> transactions = getPage(userId, query, before, true, limit);
+        Collections.reverse(transactions);
+        return transactions;
+    }
+
+    // Hacia atrás se recorre el orden invertido desde el cursor
+    private static List<Transaction> getPage(int userId, PageQuery query, Transaction cursor, boolean backward, int limit) {
+        List<Transaction> transactions = new ArrayList<>();
+        String column = query.sortField().column;
+        boolean ascending = query.ascending() != backward;
+        String direction = ascending ? "ASC" : "DESC";
+
+        // Solo al ordenar por categoría hace falta su nombre en SQL
+        StringBuilder sql = new StringBuilder("SELECT t.* FROM transactions t");
+        if (query.sortField() == SortField.CATEGORY) {
+            sql.append(" JOIN categories c ON c.id = t.category_id");
+        }
+        sql.append(" WHERE t.user_id = ?");
+        String searchPattern = null;
+        String term = null;
+        if (query.hasFilter()) {
+            term = query.filter().trim();
+            sql.append(term.length() >= TRIGRAM_MIN_LENGTH ? SUBSTRING_SEARCH : PREFIX_SEARCH);
+            searchPattern = searchPattern(term);
+        }
+        if (cursor != null) {
+            sql.append(" AND (").append(column).append(", t.id) ")
+               .append(ascending ? ">" : "<").append(" (?, ?)");
+        }
+        sql.append(" ORDER BY ").append(column).append(' ').append(direction)
+           .append(", t.id ").append(direction).append(" LIMIT ?");
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            stmt.setInt(index++, userId);
+            if (searchPattern != null) {
+                List<Integer> categoryIds = CategoryDictionary.matching(conn, userId, term, term.length() < TRIGRAM_MIN_LENGTH);
+                stmt.setString(index++, searchPattern);
+                stmt.setArray(index++, conn.createArrayOf("integer", categoryIds.toArray()));
+                stmt.setString(index++, searchPattern);
+            }
+            if (cursor != null) {
+                stmt.setObject(index++, query.sortField().keyOf(cursor));
+                stmt.setInt(index++, cursor.getId());
+            }
+            stmt.setInt(index, limit);
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                transactions.add(fromResultSet(conn, rs));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return transactions;
     }
 
-    // Método para obtener total de ingresos de un usuario
-    public static double getTotalIncome(int userId) {
-        String sql = "SELECT SUM(amount) as total FROM transactions WHERE user_id = ? AND type = 'INCOME'";
+    // Recorre todas las transacciones de un usuario (más recientes primero) con un cursor de solo
+    // avance que trae fetchSize filas por viaje, sin cargarlas todas en memoria.
+    // El visitante devuelve false para detener el recorrido. Los errores se propagan al llamador.
+    public static void forEachByUser(int userId, int fetchSize, Predicate<Transaction> visitor) throws Exception {
+        try (Connection conn = Database.getConnection()) {
+            // PostgreSQL solo usa un cursor (en lugar de traer todo el resultado) fuera del modo autocommit
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = Database.prepare(conn, SqlStatement.TRANSACTION_STREAM_BY_USER)) {
+                stmt.setFetchSize(fetchSize);
+                stmt.setInt(1, userId);
 
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (!visitor.test(fromResultSet(conn, rs))) {
+                            break;
+                        }
+                    }
+                }
+            }
+            conn.commit();
+        }
+    }
+
+    // Método para obtener el número de transacciones de un usuario (desde el resumen mensual)
+    public static int countByUser(int userId) {
         try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.ROLLUP_COUNT_BY_USER)) {
 
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return rs.getDouble("total");
+                return rs.getInt("total");
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
-        return 0.0;
+        return 0;
+    }
+
+    // Categorías del usuario, ordenadas (desde el diccionario en memoria una vez cargadas)
+    public static List<String> getCategories(int userId) {
+        return CategoryDictionary.names(userId);
+    }
+
+    // Patrón LIKE para el texto buscado, escapando los comodines que escriba el usuario
+    private static String searchPattern(String term) {
+        String escaped = term.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return term.length() >= TRIGRAM_MIN_LENGTH ? "%" + escaped + "%" : escaped + "%";
+    }
+
+    // El nombre de la categoría sale del diccionario: todas las filas comparten la misma instancia
+    private static Transaction fromResultSet(Connection conn, ResultSet rs) throws SQLException {
+        int userId = rs.getInt("user_id");
+        return new Transaction(
+            rs.getInt("id"),
+            userId,
+            rs.getString("description"),
+            CategoryDictionary.name(conn, userId, rs.getInt("category_id")),
+            rs.getDate("date").toLocalDate(),
+            Money.fromResultSet(rs, "amount"),
+            TransactionType.valueOf(rs.getString("type")),
+            rs.getString("note")
+        );
+    }
+
+    // Método para obtener todas las transacciones (alias para mantener compatibilidad)
+    public static List<Transaction> getTransactionsByUser(int userId) {
+        return getAll(userId);
     }
 
-    // Método para obtener total de gastos de un usuario
-    public static double getTotalExpenses(int userId) {
-        String sql = "SELECT SUM(amount) as total FROM transactions WHERE user_id = ? AND type = 'EXPENSE'";
+    // Método para obtener total de ingresos de un usuario (desde el resumen mensual)
+    public static Money getTotalIncome(int userId) {
+        return getRollupTotal(userId, TransactionType.INCOME);
+    }
 
+    // Método para obtener total de gastos de un usuario (desde el resumen mensual)
+    public static Money getTotalExpenses(int userId) {
+        return getRollupTotal(userId, TransactionType.EXPENSE);
+    }
+
+    private static Money getRollupTotal(int userId, TransactionType type) {
         try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.ROLLUP_TOTAL_BY_TYPE)) {
 
             stmt.setInt(1, userId);
+            stmt.setString(2, type.name());
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return rs.getDouble("total");
+                return Money.fromResultSet(rs, "total");
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
-        return 0.0;
+        return Money.ZERO;
     }
 
-    // Método para obtener total de gastos por categoría y mes
-    public static double getTotalExpensesByCategoryAndMonth(int userId, String category, java.time.YearMonth yearMonth) {
-        String sql = "SELECT SUM(amount) as total FROM transactions " +
-                     "WHERE user_id = ? AND category = ? AND type = 'EXPENSE' " +
-                     "AND date BETWEEN ? AND ?";
-
+    // Método para obtener total de gastos por categoría y mes (desde el resumen mensual)
+    public static Money getTotalExpensesByCategoryAndMonth(int userId, String category, java.time.YearMonth yearMonth) {
         try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.ROLLUP_EXPENSES_BY_CATEGORY_AND_MONTH)) {
 
-            LocalDate startDate = yearMonth.atDay(1); // Primer día del mes
-            LocalDate endDate = yearMonth.atEndOfMonth(); // Último día del mes
+            int categoryId = CategoryDictionary.findId(conn, userId, category);
+            if (categoryId < 0) {
+                return Money.ZERO;
+            }
 
             stmt.setInt(1, userId);
-            stmt.setString(2, category);
-            stmt.setDate(3, java.sql.Date.valueOf(startDate));
-            stmt.setDate(4, java.sql.Date.valueOf(endDate));
+            stmt.setDate(2, java.sql.Date.valueOf(yearMonth.atDay(1))); // Primer día del mes
+            stmt.setInt(3, categoryId);
 
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return rs.getDouble("total");
+                return Money.fromResultSet(rs, "total");
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
-        return 0.0;
+        return Money.ZERO;
+    }
+
+    // Método para obtener los gastos agrupados por categoría (para el gráfico del dashboard),
+    // ordenados de mayor a menor
+    public static Map<String, Money> getExpensesByCategory(int userId) {
+        Map<String, Money> expensesByCategory = new LinkedHashMap<>();
+        try (Connection conn = Database.getConnection();
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.ROLLUP_EXPENSES_BY_CATEGORY)) {
+
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                expensesByCategory.put(CategoryDictionary.name(conn, userId, rs.getInt("category_id")),
+                                       Money.fromResultSet(rs, "total"));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return expensesByCategory;
+    }
+
+    // Variantes asíncronas: se ejecutan en el DataExecutor, fuera del hilo de JavaFX
+    public CompletableFuture<Boolean> saveAsync(int userId) {
+        return DataExecutor.query("Transaction.save", () -> save(userId));
+    }
+
+    public CompletableFuture<Boolean> updateAsync() {
+        return DataExecutor.query("Transaction.update", this::update);
+    }
+
+    public CompletableFuture<Boolean> deleteAsync() {
+        return DataExecutor.query("Transaction.delete", this::delete);
+    }
+
+    public static CompletableFuture<List<String>> getCategoriesAsync(int userId) {
+        return CategoryDictionary.namesAsync(userId);
+    }
+
+    public static CompletableFuture<List<Transaction>> getAllAsync(int userId) {
+        return DataExecutor.query("Transaction.getAll", () -> getAll(userId));
+    }
+
+    public static CompletableFuture<List<Transaction>> getRecentTransactionsByUserAsync(int userId, int limit) {
+        return DataExecutor.query("Transaction.getRecentTransactionsByUser", () -> getRecentTransactionsByUser(userId, limit));
+    }
+
+    public static CompletableFuture<List<Transaction>> getPageAsync(int userId, PageQuery query, Transaction after, int limit) {
+        return DataExecutor.query("Transaction.getPage", () -> getPage(userId, query, after, limit));
+    }
+
+    public static CompletableFuture<List<Transaction>> getPageBeforeAsync(int userId, PageQuery query, Transaction before, int limit) {
+        return DataExecutor.query("Transaction.getPageBefore", () -> getPageBefore(userId, query, before, limit));
+    }
+
+    public static CompletableFuture<List<Transaction>> getTransactionsByUserAsync(int userId) {
+        return getAllAsync(userId);
+    }
+
+    public static CompletableFuture<Money> getTotalIncomeAsync(int userId) {
+        return DataExecutor.query("Transaction.getTotalIncome", () -> getTotalIncome(userId));
+    }
+
+    public static CompletableFuture<Money> getTotalExpensesAsync(int userId) {
+        return DataExecutor.query("Transaction.getTotalExpenses", () -> getTotalExpenses(userId));
+    }
+
+    public static CompletableFuture<Map<String, Money>> getExpensesByCategoryAsync(int userId) {
+        return DataExecutor.query("Transaction.getExpensesByCategory", () -> getExpensesByCategory(userId));
     }
 
     @Override
     public String toString() {
-        return String.format("%s: %s $%.2f (%s)",
+        return String.format("%s: %s %s (%s)",
                 getCategory(),
                 getDescription(),
-                getAmount(),
+                getAmount().format(),
                 getType().toString().toLowerCase());
     }
 }
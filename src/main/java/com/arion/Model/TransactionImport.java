@@ -0,0 +1,218 @@
+package com.arion.Model;
+
+import com.arion.Config.Database;
+import com.arion.Config.DomainEventBus;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+// Importación masiva de movimientos (extractos CSV/OFX). Las filas se envían con COPY FROM STDIN
+// a una tabla temporal y luego se pasan a transactions con una sola sentencia que descarta los
+// duplicados y actualiza el resumen mensual. Todo ocurre en una transacción: si falla o se
+// cancela, no se importa nada.
+public class TransactionImport {
+
+    // Una fila leída del extracto
+    public record Row(int lineNumber, LocalDate date, String description, String category,
+                      Money amount, Transaction.TransactionType type, String note) {}
+
+    // Una línea del extracto que no se pudo interpretar
+    public record LineError(int lineNumber, String message) {}
+
+    // Resultado de la importación
+    public record Result(int rowsRead, int imported, int duplicates, List<LineError> errors, boolean cancelled) {}
+
+    // Recibe las filas a medida que el lector las interpreta
+    public interface RowSink {
+        void accept(Row row) throws Exception;
+    }
+
+    // Origen de las filas (por ejemplo, un StatementReader sobre un archivo)
+    public interface Source {
+        void read(RowSink sink, List<LineError> errors, BooleanSupplier cancelled) throws Exception;
+    }
+
+    // Recibe el avance: filas leídas hasta el momento
+    public interface ProgressListener {
+        void onProgress(int rowsRead);
+    }
+
+    // Máximo de errores por línea que se conservan para mostrar
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    // Tamaño del bloque que se envía a COPY
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+
+    private static final String STAGING_DDL =
+        "CREATE TEMP TABLE import_staging (" +
+        "line_no INTEGER NOT NULL, date DATE NOT NULL, description VARCHAR(255) NOT NULL, " +
+        "category VARCHAR(100) NOT NULL, amount DECIMAL(10,2) NOT NULL, type VARCHAR(10) NOT NULL, note TEXT" +
+        ") ON COMMIT DROP";
+
+    private static final String COPY_SQL =
+        "COPY import_staging (line_no, date, description, category, amount, type, note) FROM STDIN WITH (FORMAT csv)";
+
+    // Categorías del extracto que el usuario todavía no tiene
+    private static final String CATEGORIES_SQL =
+        "INSERT INTO categories (user_id, name) SELECT DISTINCT ?, category FROM import_staging " +
+        "ON CONFLICT (user_id, name) DO NOTHING";
+
+    // Un movimiento es duplicado si ya existe uno con la misma fecha, monto, tipo y descripción.
+    // Se comparan ocurrencias: si el extracto trae dos movimientos iguales y la base ya tiene uno,
+    // se importa solo el segundo. Así reimportar el mismo extracto no duplica nada.
+    private static final String MERGE_SQL =
+        "WITH staged AS (" +
+        "    SELECT s.*, c.id AS category_id, " +
+        "           row_number() OVER (PARTITION BY s.date, s.amount, s.type, s.description ORDER BY s.line_no) AS occurrence " +
+        "    FROM import_staging s JOIN categories c ON c.user_id = ? AND c.name = s.category" +
+        "), existing AS (" +
+        "    SELECT date, amount, type, COALESCE(description, '') AS description, COUNT(*) AS n " +
+        "    FROM transactions " +
+        "    WHERE user_id = ? AND date BETWEEN (SELECT MIN(date) FROM import_staging) AND (SELECT MAX(date) FROM import_staging) " +
+        "    GROUP BY date, amount, type, COALESCE(description, '')" +
+        "), inserted AS (" +
+        "    INSERT INTO transactions (user_id, description, category_id, date, amount, type, note) " +
+        "    SELECT ?, s.description, s.category_id, s.date, s.amount, s.type, s.note " +
+        "    FROM staged s LEFT JOIN existing e " +
+        "      ON e.date = s.date AND e.amount = s.amount AND e.type = s.type AND e.description = s.description " +
+        "    WHERE s.occurrence > COALESCE(e.n, 0) " +
+        "    ORDER BY s.line_no " +
+        "    RETURNING user_id, date, category_id, type, amount" +
+        "), rolled AS (" +
+        "    INSERT INTO transaction_monthly_rollup (user_id, year_month, category_id, type, total, tx_count) " +
+        "    SELECT user_id, CAST(date_trunc('month', date) AS DATE), category_id, type, SUM(amount), COUNT(*) " +
+        "    FROM inserted GROUP BY user_id, date_trunc('month', date), category_id, type " +
+        "    ON CONFLICT (user_id, year_month, category_id, type) DO UPDATE SET " +
+        "    total = transaction_monthly_rollup.total + EXCLUDED.total, " +
+        "    tx_count = transaction_monthly_rollup.tx_count + EXCLUDED.tx_count " +
+        "    RETURNING 1" +
+        ") " +
+        "SELECT (SELECT COUNT(*) FROM inserted) AS imported, (SELECT COUNT(*) FROM rolled) AS groups";
+
+    private TransactionImport() {}
+
+    // Importa las filas del origen para el usuario. Los errores de conexión o de SQL se propagan;
+    // las líneas mal formadas se reportan en el resultado y no detienen la importación.
+    public static Result importStatement(int userId, Source source, ProgressListener progress,
+                                         BooleanSupplier cancelled) throws Exception {
+        List<LineError> errors = new ArrayList<>();
+        int[] rowsRead = {0};
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(STAGING_DDL);
+                }
+
+                // Enviar las filas a la tabla temporal a medida que se leen
+                CopyIn copy = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+                StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+                try {
+                    source.read(row -> {
+                        appendCsv(buffer, row);
+                        rowsRead[0]++;
+                        if (buffer.length() >= COPY_BUFFER_CHARS) {
+                            flush(copy, buffer);
+                            progress.onProgress(rowsRead[0]);
+                        }
+                    }, errors, cancelled);
+
+                    if (cancelled.getAsBoolean()) {
+                        copy.cancelCopy();
+                        conn.rollback();
+                        return new Result(rowsRead[0], 0, 0, limit(errors), true);
+                    }
+
+                    flush(copy, buffer);
+                    copy.endCopy();
+                } finally {
+                    if (copy.isActive()) {
+                        copy.cancelCopy();
+                    }
+                }
+                progress.onProgress(rowsRead[0]);
+
+                int imported = 0;
+                if (rowsRead[0] > 0) {
+                    try (PreparedStatement categories = conn.prepareStatement(CATEGORIES_SQL)) {
+                        categories.setInt(1, userId);
+                        categories.executeUpdate();
+                    }
+                    try (PreparedStatement merge = conn.prepareStatement(MERGE_SQL)) {
+                        merge.setInt(1, userId);
+                        merge.setInt(2, userId);
+                        merge.setInt(3, userId);
+                        try (ResultSet rs = merge.executeQuery()) {
+                            rs.next();
+                            imported = rs.getInt("imported");
+                        }
+                    }
+                }
+                conn.commit();
+                if (rowsRead[0] > 0) {
+                    CategoryDictionary.invalidate(userId);
+                }
+                if (imported > 0) {
+                    DomainEventBus.publish(new DomainEvent.TransactionsImported(userId, imported));
+                }
+
+                return new Result(rowsRead[0], imported, rowsRead[0] - imported, limit(errors), false);
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static List<LineError> limit(List<LineError> errors) {
+        return errors.size() > MAX_REPORTED_ERRORS ? List.copyOf(errors.subList(0, MAX_REPORTED_ERRORS)) : List.copyOf(errors);
+    }
+
+    private static void flush(CopyIn copy, StringBuilder buffer) throws SQLException {
+        if (buffer.length() > 0) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copy.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    // Una fila en formato CSV de COPY (las comillas se duplican dentro de los campos de texto)
+    private static void appendCsv(StringBuilder out, Row row) {
+        out.append(row.lineNumber()).append(',')
+           .append(row.date()).append(',');
+        appendQuoted(out, truncate(row.description(), 255));
+        out.append(',');
+        appendQuoted(out, truncate(row.category(), 100));
+        out.append(',')
+           .append(row.amount().toBigDecimal().toPlainString()).append(',')
+           .append(row.type().name()).append(',');
+        appendQuoted(out, row.note());
+        out.append('\n');
+    }
+
+    private static void appendQuoted(StringBuilder out, String value) {
+        out.append('"');
+        String text = value != null ? value : "";
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static String truncate(String value, int max) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > max ? value.substring(0, max) : value;
+    }
+}
@@ -0,0 +1,154 @@
+package com.arion.Model;
+
+import com.arion.Config.Database;
+import com.arion.Config.SqlStatement;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+// Resumen mensual de transacciones por (usuario, mes, categoría, tipo) con suma y cantidad.
+// Los totales del dashboard y el gasto de los presupuestos se leen de aquí, de modo que
+// su costo depende de los meses consultados y no del número de transacciones.
+public class TransactionRollup {
+
+    // Recalcula el resumen a partir de la tabla transactions
+    private static final String RECOMPUTE_SQL =
+            "SELECT user_id, CAST(date_trunc('month', date) AS DATE) AS year_month, category_id, type, " +
+            "SUM(amount) AS total, COUNT(*) AS tx_count " +
+            "FROM transactions %s GROUP BY user_id, date_trunc('month', date), category_id, type";
+
+    private TransactionRollup() {}
+
+    // Suma (countDelta = 1) o resta (countDelta = -1) una transacción al resumen.
+    // Se ejecuta con la conexión del llamador para quedar en la misma transacción.
+    static void apply(Connection conn, int userId, LocalDate date, int categoryId,
+                      Transaction.TransactionType type, Money amount, int countDelta) throws SQLException {
+        java.sql.Date month = java.sql.Date.valueOf(monthStart(date));
+
+        try (PreparedStatement stmt = Database.prepare(conn, SqlStatement.ROLLUP_UPSERT)) {
+            stmt.setInt(1, userId);
+            stmt.setDate(2, month);
+            stmt.setInt(3, categoryId);
+            stmt.setString(4, type.name());
+            stmt.setBigDecimal(5, countDelta < 0 ? amount.toBigDecimal().negate() : amount.toBigDecimal());
+            stmt.setInt(6, countDelta);
+            stmt.executeUpdate();
+        }
+
+        // Al quitar la última transacción de un grupo, eliminar la fila vacía
+        if (countDelta < 0) {
+            try (PreparedStatement stmt = Database.prepare(conn, SqlStatement.ROLLUP_PRUNE)) {
+                stmt.setInt(1, userId);
+                stmt.setDate(2, month);
+                stmt.setInt(3, categoryId);
+                stmt.setString(4, type.name());
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    static LocalDate monthStart(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    // Reconstruye desde cero el resumen de un usuario (userId <= 0 para todos los usuarios)
+    public static boolean rebuild(int userId) {
+        String where = userId > 0 ? "WHERE user_id = ?" : "";
+        String deleteSql = "DELETE FROM transaction_monthly_rollup " + where;
+        String insertSql = "INSERT INTO transaction_monthly_rollup (user_id, year_month, category_id, type, total, tx_count) " +
+                           String.format(RECOMPUTE_SQL, where);
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement delete = conn.prepareStatement(deleteSql);
+                 PreparedStatement insert = conn.prepareStatement(insertSql)) {
+                if (userId > 0) {
+                    delete.setInt(1, userId);
+                    insert.setInt(1, userId);
+                }
+                delete.executeUpdate();
+                insert.executeUpdate();
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    // Compara el resumen guardado con uno recalculado y devuelve las diferencias encontradas
+    public static List<String> verify(int userId) {
+        String where = userId > 0 ? "WHERE user_id = ?" : "";
+        String sql = "SELECT COALESCE(r.user_id, e.user_id) AS user_id, " +
+                     "COALESCE(r.year_month, e.year_month) AS year_month, " +
+                     "COALESCE(r.category_id, e.category_id) AS category_id, COALESCE(r.type, e.type) AS type, " +
+                     "r.total AS stored_total, e.total AS expected_total, " +
+                     "r.tx_count AS stored_count, e.tx_count AS expected_count " +
+                     "FROM (SELECT * FROM transaction_monthly_rollup " + where + ") r " +
+                     "FULL OUTER JOIN (" + String.format(RECOMPUTE_SQL, where) + ") e " +
+                     "ON r.user_id = e.user_id AND r.year_month = e.year_month " +
+                     "AND r.category_id = e.category_id AND r.type = e.type " +
+                     "WHERE r.total IS DISTINCT FROM e.total OR r.tx_count IS DISTINCT FROM e.tx_count";
+
+        List<String> mismatches = new ArrayList<>();
+        try (Connection conn = Database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            if (userId > 0) {
+                stmt.setInt(1, userId);
+                stmt.setInt(2, userId);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    mismatches.add(String.format("usuario %d, %s, categoría %d, %s: guardado %s (%s), esperado %s (%s)",
+                            rs.getInt("user_id"),
+                            YearMonth.from(rs.getDate("year_month").toLocalDate()),
+                            rs.getInt("category_id"),
+                            rs.getString("type"),
+                            rs.getBigDecimal("stored_total"),
+                            rs.getObject("stored_count"),
+                            rs.getBigDecimal("expected_total"),
+                            rs.getObject("expected_count")));
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            mismatches.add("Error al verificar el resumen: " + e.getMessage());
+        }
+        return mismatches;
+    }
+
+    // Uso: TransactionRollup rebuild [userId] | verify [userId]
+    public static void main(String[] args) {
+        if (args.length == 0 || !(args[0].equals("rebuild") || args[0].equals("verify"))) {
+            System.err.println("Uso: TransactionRollup rebuild [userId] | verify [userId]");
+            System.exit(2);
+        }
+
+        int userId = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int exitCode;
+        try {
+            if (args[0].equals("rebuild")) {
+                boolean rebuilt = rebuild(userId);
+                System.out.println(rebuilt ? "Resumen reconstruido." : "No se pudo reconstruir el resumen.");
+                exitCode = rebuilt ? 0 : 1;
+            } else {
+                List<String> mismatches = verify(userId);
+                mismatches.forEach(System.out::println);
+                System.out.println(mismatches.isEmpty() ? "El resumen coincide con las transacciones."
+                                                        : mismatches.size() + " diferencias encontradas.");
+                exitCode = mismatches.isEmpty() ? 0 : 1;
+            }
+        } finally {
+            Database.shutdown();
+        }
+        System.exit(exitCode);
+    }
+}
@@ -0,0 +1,79 @@
+package com.arion.Model;
+
+import java.util.List;
+import java.util.Map;
+
+// Totales de ingresos y gastos de un usuario. Las pantallas los ajustan con cada evento de
+// transacción (suma y resta en centavos) en lugar de volver a consultarlos.
+public record TransactionTotals(Money income, Money expenses) {
+
+    public static final TransactionTotals ZERO = new TransactionTotals(Money.ZERO, Money.ZERO);
+
+    public Money balance() {
+        return income.minus(expenses);
+    }
+
+    // true si todos los eventos se pueden aplicar como diferencia (una importación obliga a recargar)
+    public static boolean isIncremental(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            if (event instanceof DomainEvent.TransactionsImported) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Totales después del evento (los eventos que no son de una sola transacción no los cambian)
+    public TransactionTotals apply(DomainEvent event) {
+        return switch (event) {
+            case DomainEvent.TransactionCreated created ->
+                plus(created.transaction().getType(), created.transaction().getAmount());
+            case DomainEvent.TransactionDeleted deleted ->
+                plus(deleted.transaction().getType(), deleted.transaction().getAmount().negate());
+            case DomainEvent.TransactionUpdated updated ->
+                plus(updated.previous().type(), updated.previous().amount().negate())
+                    .plus(updated.transaction().getType(), updated.transaction().getAmount());
+            default -> this;
+        };
+    }
+
+    private TransactionTotals plus(Transaction.TransactionType type, Money amount) {
+        return type == Transaction.TransactionType.INCOME
+            ? new TransactionTotals(income.plus(amount), expenses)
+            : new TransactionTotals(income, expenses.plus(amount));
+    }
+
+    // Ajusta en el lugar un mapa categoría -> gasto total con el evento. Las categorías que quedan
+    // en cero se quitan, igual que en el resumen mensual.
+    public static void applyToExpensesByCategory(Map<String, Money> expensesByCategory, DomainEvent event) {
+        switch (event) {
+            case DomainEvent.TransactionCreated created ->
+                addExpense(expensesByCategory, created.transaction().getType(),
+                           created.transaction().getCategory(), created.transaction().getAmount());
+            case DomainEvent.TransactionDeleted deleted ->
+                addExpense(expensesByCategory, deleted.transaction().getType(),
+                           deleted.transaction().getCategory(), deleted.transaction().getAmount().negate());
+            case DomainEvent.TransactionUpdated updated -> {
+                addExpense(expensesByCategory, updated.previous().type(),
+                           updated.previous().category(), updated.previous().amount().negate());
+                addExpense(expensesByCategory, updated.transaction().getType(),
+                           updated.transaction().getCategory(), updated.transaction().getAmount());
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static void addExpense(Map<String, Money> expensesByCategory, Transaction.TransactionType type,
+                                   String category, Money amount) {
+        if (type != Transaction.TransactionType.EXPENSE) {
+            return;
+        }
+        Money total = expensesByCategory.getOrDefault(category, Money.ZERO).plus(amount);
+        if (total.isPositive()) {
+            expensesByCategory.put(category, total);
+        } else {
+            expensesByCategory.remove(category);
+        }
+    }
+}
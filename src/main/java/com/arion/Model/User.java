@@ -1,10 +1,14 @@
 package com.arion.Model;
 
+import com.arion.Config.AppEvents;
+import com.arion.Config.DataExecutor;
 import com.arion.Config.Database;
+import com.arion.Config.SqlStatement;
 import java.sql.*;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 public class User {
     private int id;
@@ -88,14 +92,25 @@ public class User {
         }
     }
 
-    // Método para autenticar usuario
+    // Método para autenticar usuario (cada intento queda como evento JFR com.arion.AuthAttempt)
     public static User authenticate(String usernameOrEmail, String password) {
-        String query = "SELECT id, username, password, email, created_at FROM users WHERE username = ? OR email = ?";
+        AppEvents.AuthAttempt event = new AppEvents.AuthAttempt();
+        event.begin();
+        User user = verifyCredentials(usernameOrEmail, password);
+        event.end();
+        if (event.shouldCommit()) {
+            event.success = user != null;
+            event.byEmail = usernameOrEmail != null && usernameOrEmail.contains("@");
+            event.commit();
+        }
+        return user;
+    }
 
+    private static User verifyCredentials(String usernameOrEmail, String password) {
         System.out.println("DEBUG - Buscando usuario con: " + usernameOrEmail);
 
         try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.USER_FIND_FOR_LOGIN)) {
 
             stmt.setString(1, usernameOrEmail);
             stmt.setString(2, usernameOrEmail);
@@ -134,6 +149,11 @@ public class User {
         return null;
     }
 
+    // Variante asíncrona de authenticate, fuera del hilo de JavaFX
+    public static CompletableFuture<User> authenticateAsync(String usernameOrEmail, String password) {
+        return DataExecutor.query("User.authenticate", () -> authenticate(usernameOrEmail, password));
+    }
+
     // Método para registrar nuevo usuario
     public boolean register() {
         if (usernameExists(this.username)) {
@@ -146,10 +166,8 @@ public class User {
             return false;
         }
 
-        String query = "INSERT INTO users (username, password, email) VALUES (?, ?, ?)";
-
         try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.USER_INSERT)) {
 
             stmt.setString(1, this.username);
             stmt.setString(2, hashPassword(this.password));
@@ -171,12 +189,15 @@ public class User {
         return false;
     }
 
+    // Variante asíncrona de register, fuera del hilo de JavaFX
+    public CompletableFuture<Boolean> registerAsync() {
+        return DataExecutor.query("User.register", this::register);
+    }
+
     // Método para verificar si el username ya existe
     private boolean usernameExists(String username) {
-        String query = "SELECT COUNT(*) FROM users WHERE username = ?";
-
         try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = Database.prepare(conn, SqlStatement.USER_COUNT_BY_USERNAME)) {
 
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
@@ -36,8 +36,7 @@ public class AlertUtils {
 
         // Configurar estilo básico
         DialogPane dialogPane = alert.getDialogPane();
-        dialogPane.getStylesheets().add(
-                AlertUtils.class.getResource("/Css/AlertStyles.css").toExternalForm());
+        dialogPane.getStylesheets().add(ViewRegistry.stylesheet(ViewRegistry.ALERT_CSS));
 
         // Configurar botones específicamente para confirmación
         Button okButton = (Button) dialogPane.lookupButton(ButtonType.OK);
@@ -79,12 +78,7 @@ public class AlertUtils {
         // Aplicar hoja de estilos CSS
         DialogPane dialogPane = alert.getDialogPane();
 
-        try {
-            String cssPath = AlertUtils.class.getResource("/Css/AlertStyles.css").toExternalForm();
-            dialogPane.getStylesheets().add(cssPath);
-        } catch (Exception e) {
-            System.err.println("Error cargando estilos: " + e.getMessage());
-        }
+        dialogPane.getStylesheets().add(ViewRegistry.stylesheet(ViewRegistry.ALERT_CSS));
 
         // Configurar el botón OK
         Button okButton = (Button) dialogPane.lookupButton(ButtonType.OK);
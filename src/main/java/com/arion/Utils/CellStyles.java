@@ -0,0 +1,39 @@
+package com.arion.Utils;
+
+import com.arion.Model.Transaction;
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.Region;
+
+// Piezas compartidas por las celdas de listas y tablas. Las celdas se crean una vez y se reutilizan
+// al desplazarse: en updateItem solo cambian texto y pseudo-clases, y los colores y los iconos
+// vienen de Dashbord.css (ver "CELDAS REUTILIZABLES").
+public final class CellStyles {
+
+    private static final PseudoClass INCOME = PseudoClass.getPseudoClass("income");
+    private static final PseudoClass EXPENSE = PseudoClass.getPseudoClass("expense");
+
+    private CellStyles() {}
+
+    // Activa :income o :expense según el tipo (null en celdas vacías quita ambas)
+    public static void setType(Node node, Transaction.TransactionType type) {
+        node.pseudoClassStateChanged(INCOME, type == Transaction.TransactionType.INCOME);
+        node.pseudoClassStateChanged(EXPENSE, type == Transaction.TransactionType.EXPENSE);
+    }
+
+    // Botón con icono -fx-shape (por ejemplo "icon-edit" con "button-icon-edit")
+    public static Button iconButton(String iconClass, String buttonClass, String tooltip) {
+        Region icon = new Region();
+        icon.getStyleClass().addAll("icon-shape", iconClass);
+
+        Button button = new Button();
+        button.setGraphic(icon);
+        button.getStyleClass().addAll("button-icon", buttonClass);
+        button.setMinSize(30, 30);
+        button.setPrefSize(30, 30);
+        button.setTooltip(new Tooltip(tooltip));
+        return button;
+    }
+}
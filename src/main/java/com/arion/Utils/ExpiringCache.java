@@ -0,0 +1,104 @@
+package com.arion.Utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+// Caché en memoria con tamaño máximo (desaloja la entrada usada hace más tiempo) y vencimiento
+// por tiempo desde que se cargó cada entrada. Es segura entre hilos.
+// Una carga que empezó antes de una invalidación no guarda su resultado, para no volver a
+// dejar en la caché datos que ya se sabe que cambiaron.
+public class ExpiringCache<K, V> {
+
+    public interface Loader<K, V> {
+        V load(K key) throws Exception;
+    }
+
+    private record Entry<V>(V value, long loadedAt) {}
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long version;
+    private long hits;
+    private long misses;
+
+    public ExpiringCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ExpiringCache.this.maxSize;
+            }
+        };
+    }
+
+    // Valor en caché (o null si no está o venció)
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.loadedAt() > ttlMillis) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    // Devuelve el valor en caché o lo carga (fuera del bloqueo) y lo guarda.
+    // Si la carga falla, la excepción se propaga y no se guarda nada.
+    public V getOrLoad(K key, Loader<K, V> loader) throws Exception {
+        long startVersion;
+        synchronized (this) {
+            V cached = get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            startVersion = version;
+        }
+
+        V value = loader.load(key);
+        synchronized (this) {
+            if (version == startVersion) {
+                entries.put(key, new Entry<>(value, System.currentTimeMillis()));
+            }
+        }
+        return value;
+    }
+
+    // Actualiza en el lugar una entrada existente (si no está en caché no hace nada:
+    // la próxima lectura la cargará completa)
+    public synchronized void update(K key, UnaryOperator<V> updater) {
+        version++;
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            entries.put(key, new Entry<>(updater.apply(entry.value()), entry.loadedAt()));
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        version++;
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        version++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    public synchronized long missCount() {
+        return misses;
+    }
+}
@@ -0,0 +1,156 @@
+package com.arion.Utils;
+
+import com.arion.Config.DataExecutor;
+import javafx.beans.value.ChangeListener;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+import javafx.stage.WindowEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+// Lleva el registro de las cargas en curso de una pantalla. Una carga nueva con la
+// misma clave cancela la anterior, y al cerrar la ventana se cancelan todas.
+// Todos los métodos deben llamarse desde el hilo de JavaFX.
+public class LoadTracker {
+
+    private final Map<String, CompletableFuture<?>> inFlight = new HashMap<>();
+    // Carga de pantalla en curso cuando se creó el controlador dueño (null fuera de ViewRegistry.load)
+    private final ScreenLoadTrace screenLoad = ScreenLoadTrace.current();
+
+    public <T> void track(String key, CompletableFuture<T> future, Consumer<T> onSuccess) {
+        track(key, future, onSuccess, error -> {
+            System.err.println("Error al cargar datos (" + key + "): " + error.getMessage());
+            error.printStackTrace();
+        });
+    }
+
+    // Entrega el resultado en el hilo de JavaFX, salvo que la carga haya quedado obsoleta
+    public <T> void track(String key, CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        CompletableFuture<?> previous = inFlight.put(key, future);
+        if (previous != null && previous != future) {
+            previous.cancel(true);
+        }
+        if (screenLoad != null) {
+            screenLoad.dataRequested();
+        }
+
+        future.whenCompleteAsync((result, error) -> {
+            try {
+                deliver(key, future, result, error, onSuccess, onError);
+            } finally {
+                if (screenLoad != null) {
+                    screenLoad.dataLoaded();
+                }
+            }
+        }, DataExecutor.fx());
+    }
+
+    private <T> void deliver(String key, CompletableFuture<T> future, T result, Throwable error,
+                             Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        if (inFlight.get(key) != future) {
+            return; // Reemplazada por otra carga o cancelada
+        }
+        inFlight.remove(key);
+
+        if (error == null) {
+            onSuccess.accept(result);
+        } else {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (!(cause instanceof CancellationException)) {
+                onError.accept(cause);
+            }
+        }
+    }
+
+    public boolean isLoading(String key) {
+        return inFlight.containsKey(key);
+    }
+
+    public void cancel(String key) {
+        CompletableFuture<?> future = inFlight.remove(key);
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    public void cancelAll() {
+        List<CompletableFuture<?>> pending = new ArrayList<>(inFlight.values());
+        inFlight.clear();
+        pending.forEach(future -> future.cancel(true));
+    }
+
+    // Cancela las cargas pendientes cuando se oculta la ventana que contiene al nodo
+    public void cancelWhenHidden(Node node) {
+        whenHidden(node, this::cancelAll);
+    }
+
+    // Ejecuta la acción la primera vez que se oculta la ventana que contiene (o llegue a contener)
+    // al nodo. Los listeners se mueven con el nodo entre escenas y ventanas, y se quitan todos al
+    // ejecutar la acción, así la ventana no retiene al controlador después.
+    public static void whenHidden(Node node, Runnable action) {
+        new HiddenWatch(node, action).start();
+    }
+
+    private static final class HiddenWatch {
+        private final Node node;
+        private final Runnable action;
+        private final ChangeListener<Scene> sceneListener = (obs, oldScene, newScene) -> watchScene(newScene);
+        private final ChangeListener<Window> windowListener = (obs, oldWindow, newWindow) -> watchWindow(newWindow);
+        private final EventHandler<WindowEvent> hiddenHandler = this::hidden;
+        private Scene scene;
+        private Window window;
+
+        private HiddenWatch(Node node, Runnable action) {
+            this.node = node;
+            this.action = action;
+        }
+
+        private void start() {
+            node.sceneProperty().addListener(sceneListener);
+            watchScene(node.getScene());
+        }
+
+        private void hidden(WindowEvent event) {
+            stop();
+            action.run();
+        }
+
+        private void stop() {
+            node.sceneProperty().removeListener(sceneListener);
+            watchScene(null);
+        }
+
+        private void watchScene(Scene newScene) {
+            if (scene != null) {
+                scene.windowProperty().removeListener(windowListener);
+            }
+            scene = newScene;
+            if (scene != null) {
+                scene.windowProperty().addListener(windowListener);
+            }
+            watchWindow(scene != null ? scene.getWindow() : null);
+        }
+
+        private void watchWindow(Window newWindow) {
+            if (window == newWindow) {
+                return;
+            }
+            if (window != null) {
+                window.removeEventHandler(WindowEvent.WINDOW_HIDDEN, hiddenHandler);
+            }
+            window = newWindow;
+            if (window != null) {
+                window.addEventHandler(WindowEvent.WINDOW_HIDDEN, hiddenHandler);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.arion.Utils;
+
+import com.arion.Config.AppEvents;
+import com.arion.Model.Transaction;
+import javafx.concurrent.Task;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+// Tarea cancelable que exporta el reporte PDF en segundo plano e informa su avance.
+// Si se cancela o falla, se elimina el archivo incompleto. Cada exportación queda como evento
+// JFR com.arion.PdfExport con las filas y los bytes escritos.
+public class PdfExportTask extends Task<Long> {
+
+    private final int userId;
+    private final String username;
+    private final File file;
+
+    public PdfExportTask(int userId, String username, File file) {
+        this.userId = userId;
+        this.username = username;
+        this.file = file;
+    }
+
+    @Override
+    protected Long call() throws Exception {
+        AppEvents.PdfExport event = new AppEvents.PdfExport();
+        event.begin();
+        updateMessage("Preparando reporte...");
+        long totalRows = Transaction.countByUser(userId);
+        TransactionPdfExporter exporter = new TransactionPdfExporter(
+            username, Transaction.getTotalIncome(userId), Transaction.getTotalExpenses(userId));
+
+        boolean completed = false;
+        long rows = 0;
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+                rows = exporter.export(userId, totalRows, out, (written, total) -> {
+                    updateProgress(written, total);
+                    updateMessage("Exportando " + written + " de " + total + " transacciones...");
+                }, this::isCancelled);
+                completed = !isCancelled();
+            }
+            return rows;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.rows = rows;
+                event.bytes = completed ? file.length() : 0;
+                event.completed = completed;
+                event.commit();
+            }
+            if (!completed && file.exists() && !file.delete()) {
+                System.err.println("No se pudo eliminar el reporte incompleto: " + file.getAbsolutePath());
+            }
+        }
+    }
+}
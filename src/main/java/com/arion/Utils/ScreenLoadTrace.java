@@ -0,0 +1,137 @@
+package com.arion.Utils;
+
+import com.arion.Config.AppEvents;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+// Fases de la carga de una pantalla para el evento JFR com.arion.ScreenLoad:
+// FXML (desde FXMLLoader.load hasta initialize), inicialización del controlador, espera por los
+// datos pedidos con el LoadTracker de la pantalla durante su inicialización, y primer render
+// (el primer pulso de layout con la pantalla en una escena y los datos ya mostrados).
+// ViewRegistry crea la traza; el controlador marca initializing() al empezar su initialize.
+// Todo ocurre en el hilo de JavaFX.
+public final class ScreenLoadTrace {
+
+    // Traza de la vista que FXMLLoader está cargando en este hilo (el controlador se crea dentro)
+    private static final ThreadLocal<ScreenLoadTrace> LOADING = new ThreadLocal<>();
+
+    private final AppEvents.ScreenLoad event = new AppEvents.ScreenLoad();
+    private final String screen;
+    private final long startedAt = System.nanoTime();
+    private long initStartedAt;
+    private long loadedAt;
+    private long dataLoadedAt;
+    private int pendingLoads;
+    private Parent root;
+    private boolean awaitingRender;
+
+    private ScreenLoadTrace(String screen) {
+        this.screen = screen;
+    }
+
+    static ScreenLoadTrace begin(String screen) {
+        ScreenLoadTrace trace = new ScreenLoadTrace(screen);
+        trace.event.begin();
+        LOADING.set(trace);
+        return trace;
+    }
+
+    // Fin de FXMLLoader.load (incluye initialize)
+    void loaded(Parent loadedRoot) {
+        LOADING.remove();
+        loadedAt = System.nanoTime();
+        root = loadedRoot;
+        awaitRenderWhenReady();
+    }
+
+    // Si la carga falló, la traza se descarta
+    void abandon() {
+        LOADING.remove();
+    }
+
+    // Primera línea del initialize de cada *ViewController
+    public static void initializing() {
+        ScreenLoadTrace trace = LOADING.get();
+        if (trace != null && trace.initStartedAt == 0) {
+            trace.initStartedAt = System.nanoTime();
+        }
+    }
+
+    // Traza de la vista en carga, para el LoadTracker que se crea con su controlador
+    static ScreenLoadTrace current() {
+        return LOADING.get();
+    }
+
+    // Una carga de datos empezada antes del primer render forma parte de la pantalla
+    void dataRequested() {
+        if (!awaitingRender) {
+            pendingLoads++;
+        }
+    }
+
+    void dataLoaded() {
+        if (pendingLoads > 0 && --pendingLoads == 0) {
+            dataLoadedAt = System.nanoTime();
+            awaitRenderWhenReady();
+        }
+    }
+
+    private void awaitRenderWhenReady() {
+        if (awaitingRender || loadedAt == 0 || pendingLoads > 0) {
+            return;
+        }
+        awaitingRender = true;
+
+        if (root.getScene() != null) {
+            awaitPulse(root.getScene());
+        } else {
+            root.sceneProperty().addListener(new ChangeListener<>() {
+                @Override
+                public void changed(ObservableValue<? extends Scene> obs, Scene oldScene, Scene newScene) {
+                    if (newScene != null) {
+                        root.sceneProperty().removeListener(this);
+                        awaitPulse(newScene);
+                    }
+                }
+            });
+        }
+    }
+
+    // La escena recorre sus listeners de pulso mientras llama a este; se quita en la vuelta siguiente
+    private void awaitPulse(Scene scene) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            Platform.runLater(() -> scene.removePostLayoutPulseListener(listener[0]));
+            if (root != null) {
+                commit();
+            }
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    private void commit() {
+        long renderedAt = System.nanoTime();
+        long initAt = initStartedAt != 0 ? initStartedAt : loadedAt;
+        long dataAt = Math.max(loadedAt, dataLoadedAt);
+        root = null;
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.screen = screen;
+            event.fxmlMillis = millis(startedAt, initAt);
+            event.initMillis = millis(initAt, loadedAt);
+            event.dataMillis = millis(loadedAt, dataAt);
+            event.renderMillis = millis(dataAt, renderedAt);
+            event.commit();
+        }
+    }
+
+    private static long millis(long from, long to) {
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0, to - from));
+    }
+}
@@ -0,0 +1,50 @@
+package com.arion.Utils;
+
+import com.arion.Config.DataExecutor;
+import com.arion.Config.Database;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Calentamiento en segundo plano mientras el usuario escribe sus credenciales: deja abiertas y
+// validadas las conexiones del pool, carga las clases del dashboard (la siguiente pantalla) y
+// ejercita OpenPDF, así nada de eso se paga después del clic en "Iniciar sesión".
+// Se ejecuta una sola vez por proceso; un paso que falla no impide los demás.
+public final class StartupWarmup {
+
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private StartupWarmup() {}
+
+    public static void start() {
+        if (!STARTED.compareAndSet(false, true)) {
+            return;
+        }
+        DataExecutor.run(() -> {
+            step("conexiones", StartupWarmup::warmDatabase);
+            step("vista del dashboard", () -> ViewRegistry.preloadClasses(ViewRegistry.DASHBOARD));
+            step("OpenPDF", TransactionPdfExporter::warmUp);
+        });
+    }
+
+    // Repone el mínimo del pool (si el housekeeper cerró alguna) y valida la que usará el login
+    private static void warmDatabase() throws Exception {
+        Database.prewarm();
+        try (Connection conn = Database.getConnection()) {
+            conn.isValid(VALIDATION_TIMEOUT_SECONDS);
+        }
+    }
+
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    private static void step(String name, Step step) {
+        try {
+            step.run();
+        } catch (Exception e) {
+            System.err.println("Calentamiento (" + name + ") falló: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.arion.Utils;
+
+import com.arion.Model.Money;
+import com.arion.Model.Transaction;
+import com.arion.Model.TransactionImport;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+
+// Lee un extracto bancario (CSV u OFX) fila por fila, sin cargar el archivo completo en memoria.
+// Las líneas que no se pueden interpretar se reportan como errores y se continúa con la siguiente.
+//
+// CSV: la primera línea es el encabezado (en español o inglés): fecha, descripcion, categoria,
+// monto, tipo, nota. Solo fecha y monto son obligatorias; sin columna de tipo, un monto negativo
+// es un gasto. El separador (',' o ';') se detecta a partir del encabezado.
+// OFX: se toma cada <STMTTRN> (DTPOSTED, TRNAMT, NAME, MEMO).
+public class StatementReader implements TransactionImport.Source {
+
+    public enum Format { CSV, OFX }
+
+    private static final String DEFAULT_CATEGORY = "Otros";
+
+    private static final DateTimeFormatter DAY_FIRST = DateTimeFormatter.ofPattern("d/M/yyyy");
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    // "1.234" o "-1.234.567": puntos como separador de miles
+    private static final Pattern DOT_GROUPED = Pattern.compile("-?\\d{1,3}(\\.\\d{3})+");
+
+    private final File file;
+    private final Format format;
+    private volatile long bytesRead;
+
+    public StatementReader(File file) {
+        this(file, detectFormat(file));
+    }
+
+    public StatementReader(File file, Format format) {
+        this.file = file;
+        this.format = format;
+    }
+
+    public static Format detectFormat(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return name.endsWith(".ofx") || name.endsWith(".qfx") ? Format.OFX : Format.CSV;
+    }
+
+    public long length() {
+        return file.length();
+    }
+
+    // Bytes leídos del archivo hasta el momento, para calcular el avance
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public void read(TransactionImport.RowSink sink, List<TransactionImport.LineError> errors,
+                     BooleanSupplier cancelled) throws Exception {
+        bytesRead = 0;
+        try (Reader input = new InputStreamReader(new CountingInputStream(new FileInputStream(file)), StandardCharsets.UTF_8)) {
+            CharCursor reader = new CharCursor(input);
+            if (format == Format.OFX) {
+                readOfx(reader, sink, errors, cancelled);
+            } else {
+                readCsv(reader, sink, errors, cancelled);
+            }
+        }
+    }
+
+    // ---------- CSV ----------
+
+    private void readCsv(CharCursor reader, TransactionImport.RowSink sink, List<TransactionImport.LineError> errors,
+                         BooleanSupplier cancelled) throws Exception {
+        CsvLexer lexer = new CsvLexer(reader);
+        List<String> header = lexer.nextRecord();
+        if (header == null) {
+            return;
+        }
+
+        Map<String, Integer> columns = mapHeader(header);
+        if (!columns.containsKey("date") || !columns.containsKey("amount")) {
+            errors.add(new TransactionImport.LineError(1, "El encabezado debe incluir las columnas fecha y monto"));
+            return;
+        }
+
+        List<String> record;
+        while ((record = lexer.nextRecord()) != null) {
+            if (cancelled.getAsBoolean()) {
+                return;
+            }
+            int line = lexer.recordLine;
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+
+            try {
+                Money amount = parseAmount(field(record, columns, "amount"), lexer.delimiter == ';');
+                String typeText = field(record, columns, "type");
+                Transaction.TransactionType type = typeText.isEmpty()
+                    ? (amount.isNegative() ? Transaction.TransactionType.EXPENSE : Transaction.TransactionType.INCOME)
+                    : parseType(typeText);
+
+                String category = field(record, columns, "category");
+                sink.accept(new TransactionImport.Row(
+                    line,
+                    parseDate(field(record, columns, "date")),
+                    field(record, columns, "description"),
+                    category.isEmpty() ? DEFAULT_CATEGORY : category,
+                    amount.abs(),
+                    type,
+                    field(record, columns, "note")
+                ));
+            } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+                errors.add(new TransactionImport.LineError(line, e.getMessage()));
+            }
+        }
+    }
+
+    // Nombre de columna (español o inglés) -> posición
+    private static Map<String, Integer> mapHeader(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = normalize(header.get(i));
+            String key = switch (name) {
+                case "fecha", "date" -> "date";
+                case "descripcion", "description", "concepto" -> "description";
+                case "categoria", "category" -> "category";
+                case "monto", "importe", "amount" -> "amount";
+                case "tipo", "type" -> "type";
+                case "nota", "note", "notes" -> "note";
+                default -> null;
+            };
+            if (key != null) {
+                columns.putIfAbsent(key, i);
+            }
+        }
+        return columns;
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT)
+                   .replace('á', 'a').replace('é', 'e').replace('í', 'i').replace('ó', 'o').replace('ú', 'u')
+                   .replace("\uFEFF", "");
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String key) {
+        Integer index = columns.get(key);
+        if (index == null || index >= record.size()) {
+            return "";
+        }
+        return record.get(index).trim();
+    }
+
+    // Fechas ISO (2024-03-15) o con el día primero (15/03/2024)
+    private static LocalDate parseDate(String text) {
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("Fecha vacía");
+        }
+        if (text.indexOf('/') >= 0) {
+            return LocalDate.parse(text, DAY_FIRST);
+        }
+        return LocalDate.parse(text);
+    }
+
+    // Acepta "$1,234.56", "-45.10" y, en archivos separados por ';', "1.234,56" y "1.234" (en esos
+    // archivos el punto sin coma agrupa miles si le siguen grupos de tres dígitos). Un monto con
+    // más de dos decimales se rechaza en lugar de redondearlo.
+    static Money parseAmount(String text, boolean commaDecimal) {
+        String value = text.replace("$", "").replace(" ", "");
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Monto vacío");
+        }
+
+        int lastComma = value.lastIndexOf(',');
+        int lastDot = value.lastIndexOf('.');
+        if (lastComma >= 0 && (lastComma > lastDot && (commaDecimal || lastDot >= 0))) {
+            value = value.replace(".", "").replace(',', '.');
+        } else if (commaDecimal && lastComma < 0 && DOT_GROUPED.matcher(value).matches()) {
+            value = value.replace(".", "");
+        } else {
+            value = value.replace(",", "");
+        }
+
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Monto inválido: " + text);
+        }
+        if (amount.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Monto con más de dos decimales: " + text);
+        }
+        return Money.of(amount);
+    }
+
+    private static Transaction.TransactionType parseType(String text) {
+        switch (normalize(text)) {
+            case "income", "ingreso", "ingresos":
+                return Transaction.TransactionType.INCOME;
+            case "expense", "gasto", "gastos":
+                return Transaction.TransactionType.EXPENSE;
+            default:
+                throw new IllegalArgumentException("Tipo desconocido: " + text);
+        }
+    }
+
+    // Separa registros CSV respetando comillas (un campo entre comillas puede contener
+    // separadores y saltos de línea; "" es una comilla literal)
+    private static final class CsvLexer {
+        private final CharCursor reader;
+        private char delimiter = ',';
+        private int line = 1;
+        private int recordLine;
+        private boolean delimiterDetected;
+
+        CsvLexer(CharCursor reader) {
+            this.reader = reader;
+        }
+
+        List<String> nextRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+
+            while (c != -1) {
+                char ch = (char) c;
+                if (quoted) {
+                    if (ch == '"') {
+                        if (reader.peek() == '"') {
+                            reader.read();
+                            current.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        if (ch == '\n') {
+                            line++;
+                        }
+                        current.append(ch);
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                } else if (ch == '\n' || ch == '\r') {
+                    if (ch == '\r' && reader.peek() == '\n') {
+                        reader.read();
+                    }
+                    line++;
+                    break;
+                } else if (ch == delimiter || (!delimiterDetected && ch == ';')) {
+                    // En el encabezado, el primer separador encontrado fija el del archivo
+                    if (!delimiterDetected) {
+                        delimiter = ch;
+                        delimiterDetected = true;
+                    }
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(ch);
+                }
+                c = reader.read();
+            }
+
+            fields.add(current.toString());
+            delimiterDetected = true;
+            return fields;
+        }
+    }
+
+    // ---------- OFX ----------
+
+    // OFX 1.x es SGML (las etiquetas de valor no siempre se cierran) y OFX 2.x es XML;
+    // en ambos casos basta con leer "<ETIQUETA>valor" dentro de cada <STMTTRN>.
+    private void readOfx(CharCursor reader, TransactionImport.RowSink sink, List<TransactionImport.LineError> errors,
+                         BooleanSupplier cancelled) throws Exception {
+        Map<String, String> values = null;
+        int transactionLine = 0;
+        int line = 1;
+        StringBuilder tag = new StringBuilder();
+        StringBuilder value = new StringBuilder();
+        String currentTag = null;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            char ch = (char) c;
+            if (ch == '\n') {
+                line++;
+            }
+            if (ch != '<') {
+                if (currentTag != null) {
+                    value.append(ch);
+                }
+                continue;
+            }
+
+            // Cierra el valor de la etiqueta anterior
+            if (values != null && currentTag != null) {
+                values.putIfAbsent(currentTag, decodeEntities(value.toString().trim()));
+            }
+            value.setLength(0);
+
+            tag.setLength(0);
+            while ((c = reader.read()) != -1 && c != '>') {
+                tag.append((char) c);
+            }
+            String name = tag.toString().trim().toUpperCase(Locale.ROOT);
+            currentTag = name.startsWith("/") ? null : name;
+
+            if (name.equals("STMTTRN")) {
+                if (cancelled.getAsBoolean()) {
+                    return;
+                }
+                values = new HashMap<>();
+                transactionLine = line;
+            } else if (name.equals("/STMTTRN") && values != null) {
+                try {
+                    sink.accept(toRow(transactionLine, values));
+                } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+                    errors.add(new TransactionImport.LineError(transactionLine, e.getMessage()));
+                }
+                values = null;
+            }
+        }
+    }
+
+    private static TransactionImport.Row toRow(int line, Map<String, String> values) {
+        String posted = values.getOrDefault("DTPOSTED", "");
+        if (posted.length() < 8) {
+            throw new IllegalArgumentException("Fecha inválida: " + posted);
+        }
+        Money amount = parseAmount(values.getOrDefault("TRNAMT", ""), false);
+
+        String name = values.getOrDefault("NAME", "");
+        String memo = values.getOrDefault("MEMO", "");
+        return new TransactionImport.Row(
+            line,
+            LocalDate.parse(posted.substring(0, 8), OFX_DATE),
+            name.isEmpty() ? memo : name,
+            DEFAULT_CATEGORY,
+            amount.abs(),
+            amount.isNegative() ? Transaction.TransactionType.EXPENSE : Transaction.TransactionType.INCOME,
+            name.isEmpty() ? "" : memo
+        );
+    }
+
+    private static String decodeEntities(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        return text.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                   .replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    // Lectura carácter a carácter sobre un búfer propio (evita la sincronización de Reader.read()
+    // por cada carácter) con un carácter de anticipación
+    private static final class CharCursor {
+        private final Reader reader;
+        private final char[] buffer = new char[64 * 1024];
+        private int position;
+        private int limit;
+
+        CharCursor(Reader reader) {
+            this.reader = reader;
+        }
+
+        int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++];
+        }
+
+        int peek() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position];
+        }
+
+        private boolean fill() throws IOException {
+            int n;
+            do {
+                n = reader.read(buffer, 0, buffer.length);
+            } while (n == 0);
+            position = 0;
+            limit = Math.max(n, 0);
+            return n > 0;
+        }
+    }
+
+    // Cuenta los bytes leídos del archivo
+    private final class CountingInputStream extends FilterInputStream {
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                bytesRead += n;
+            }
+            return n;
+        }
+    }
+}
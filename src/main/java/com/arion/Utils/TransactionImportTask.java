@@ -0,0 +1,36 @@
+package com.arion.Utils;
+
+import com.arion.Model.TransactionImport;
+import javafx.concurrent.Task;
+
+import java.io.File;
+
+// Tarea cancelable que importa un extracto (CSV u OFX) en segundo plano. El avance se calcula
+// con los bytes leídos del archivo; al cancelar no se importa ninguna fila.
+public class TransactionImportTask extends Task<TransactionImport.Result> {
+
+    private final int userId;
+    private final File file;
+
+    public TransactionImportTask(int userId, File file) {
+        this.userId = userId;
+        this.file = file;
+    }
+
+    @Override
+    protected TransactionImport.Result call() throws Exception {
+        updateMessage("Leyendo " + file.getName() + "...");
+        StatementReader reader = new StatementReader(file);
+        long length = Math.max(1, reader.length());
+
+        TransactionImport.Result result = TransactionImport.importStatement(userId, reader, rowsRead -> {
+            updateProgress(Math.min(reader.bytesRead(), length), length);
+            updateMessage("Importando " + rowsRead + " movimientos...");
+        }, this::isCancelled);
+
+        if (!result.cancelled()) {
+            updateProgress(length, length);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,216 @@
+package com.arion.Utils;
+
+import com.arion.Model.Money;
+import com.arion.Model.Transaction;
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+
+import java.awt.Color;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.BooleanSupplier;
+
+// Genera el reporte PDF de transacciones en streaming: las filas se leen con un cursor de
+// la base de datos y la tabla se vuelca al documento por bloques, de modo que la memoria
+// usada no depende del número de transacciones. No usa JavaFX, así que puede ejecutarse
+// desde cualquier hilo.
+public class TransactionPdfExporter {
+
+    // Filas leídas por viaje a la base de datos
+    private static final int FETCH_SIZE = 500;
+
+    // Filas que se acumulan en la tabla antes de escribirlas en el documento
+    private static final int CHUNK_ROWS = 200;
+
+    // Recibe el avance de la exportación (filas escritas y total esperado)
+    public interface ProgressListener {
+        void onProgress(long rowsWritten, long totalRows);
+    }
+
+    private final String username;
+    private final Money totalIncome;
+    private final Money totalExpenses;
+
+    public TransactionPdfExporter(String username, Money totalIncome, Money totalExpenses) {
+        this.username = username;
+        this.totalIncome = totalIncome;
+        this.totalExpenses = totalExpenses;
+    }
+
+    // Genera un documento mínimo y lo descarta: carga las clases de OpenPDF y las métricas de las
+    // fuentes Helvetica, para que la primera exportación real no pague ese arranque
+    public static void warmUp() throws Exception {
+        Document document = new Document(PageSize.A4);
+        PdfWriter.getInstance(document, OutputStream.nullOutputStream());
+        document.open();
+        PdfPTable table = new PdfPTable(1);
+        for (int style : new int[]{Font.NORMAL, Font.BOLD, Font.ITALIC}) {
+            table.addCell(new PdfPCell(new Phrase("Arion", new Font(Font.HELVETICA, 9, style))));
+        }
+        document.add(new Paragraph("Arion", new Font(Font.HELVETICA, 18, Font.BOLD)));
+        document.add(table);
+        document.close();
+    }
+
+    // Escribe el reporte completo del usuario; devuelve el número de filas exportadas.
+    // Si cancelled devuelve true, se detiene en la siguiente fila y el documento queda incompleto.
+    public long export(int userId, long totalRows, OutputStream out,
+                       ProgressListener progress, BooleanSupplier cancelled) throws Exception {
+        Document document = new Document(PageSize.A4);
+        PdfWriter.getInstance(document, out);
+        document.open();
+
+        try {
+            writeHeader(document);
+
+            // Tabla de transacciones
+            Font boldFont = new Font(Font.HELVETICA, 12, Font.BOLD);
+            Paragraph tableTitle = new Paragraph("DETALLE DE TRANSACCIONES", boldFont);
+            tableTitle.setSpacingAfter(10f);
+            document.add(tableTitle);
+
+            // Crear tabla con 5 columnas, en modo incremental (setComplete(false))
+            PdfPTable table = new PdfPTable(5);
+            table.setWidthPercentage(100);
+            table.setSpacingBefore(10f);
+            table.setSpacingAfter(10f);
+            table.setWidths(new float[]{20f, 25f, 15f, 20f, 20f});
+            table.setHeaderRows(1);
+            table.setComplete(false);
+
+            // Headers de la tabla (se repiten en cada página)
+            addTableHeader(table, "Fecha");
+            addTableHeader(table, "Categoría");
+            addTableHeader(table, "Tipo");
+            addTableHeader(table, "Monto");
+            addTableHeader(table, "Descripción");
+
+            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+            Font cellFont = new Font(Font.HELVETICA, 9, Font.NORMAL);
+            long[] rowsWritten = {0};
+            Exception[] writeError = {null};
+
+            Transaction.forEachByUser(userId, FETCH_SIZE, transaction -> {
+                if (cancelled.getAsBoolean()) {
+                    return false;
+                }
+
+                addRow(table, transaction, dateFormatter, cellFont);
+                rowsWritten[0]++;
+
+                // Volcar el bloque al documento: las filas escritas se liberan de la tabla
+                if (rowsWritten[0] % CHUNK_ROWS == 0) {
+                    try {
+                        document.add(table);
+                    } catch (Exception e) {
+                        writeError[0] = e;
+                        return false;
+                    }
+                    progress.onProgress(rowsWritten[0], Math.max(totalRows, rowsWritten[0]));
+                }
+                return true;
+            });
+
+            if (writeError[0] != null) {
+                throw writeError[0];
+            }
+
+            table.setComplete(true);
+            document.add(table);
+            progress.onProgress(rowsWritten[0], rowsWritten[0]);
+
+            // Pie de página
+            Paragraph footer = new Paragraph("\n\nReporte generado por Arion - Gestor de Finanzas Personales",
+                                            new Font(Font.HELVETICA, 8, Font.ITALIC));
+            footer.setAlignment(Element.ALIGN_CENTER);
+            document.add(footer);
+
+            return rowsWritten[0];
+        } finally {
+            document.close();
+        }
+    }
+
+    private void writeHeader(Document document) throws Exception {
+        // Título del documento
+        Font titleFont = new Font(Font.HELVETICA, 18, Font.BOLD);
+        Paragraph title = new Paragraph("REPORTE DE TRANSACCIONES", titleFont);
+        title.setAlignment(Element.ALIGN_CENTER);
+        title.setSpacingAfter(20f);
+        document.add(title);
+
+        // Información del usuario y fecha
+        Font normalFont = new Font(Font.HELVETICA, 12, Font.NORMAL);
+        Font boldFont = new Font(Font.HELVETICA, 12, Font.BOLD);
+
+        Paragraph userInfo = new Paragraph("Usuario: " + username, normalFont);
+        userInfo.setSpacingAfter(10f);
+        document.add(userInfo);
+
+        Paragraph dateInfo = new Paragraph("Fecha de generación: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")), normalFont);
+        dateInfo.setSpacingAfter(20f);
+        document.add(dateInfo);
+
+        // Resumen financiero
+        Money netBalance = totalIncome.minus(totalExpenses);
+
+        Paragraph summaryTitle = new Paragraph("RESUMEN FINANCIERO", boldFont);
+        summaryTitle.setSpacingAfter(10f);
+        document.add(summaryTitle);
+
+        document.add(new Paragraph("Total Ingresos: " + totalIncome.format(), normalFont));
+        document.add(new Paragraph("Total Gastos: " + totalExpenses.format(), normalFont));
+
+        Paragraph balanceP = new Paragraph("Balance Neto: " + netBalance.format(), boldFont);
+        balanceP.setSpacingAfter(20f);
+        document.add(balanceP);
+    }
+
+    private void addRow(PdfPTable table, Transaction transaction, DateTimeFormatter dateFormatter, Font cellFont) {
+        // Fecha
+        String dateStr = transaction.getDate() != null ? transaction.getDate().format(dateFormatter) : "";
+        table.addCell(new PdfPCell(new Phrase(dateStr, cellFont)));
+
+        // Categoría
+        String category = transaction.getCategory() != null ? transaction.getCategory() : "";
+        table.addCell(new PdfPCell(new Phrase(category, cellFont)));
+
+        // Tipo
+        String type = transaction.getType() == Transaction.TransactionType.INCOME ? "Ingreso" : "Gasto";
+        table.addCell(new PdfPCell(new Phrase(type, cellFont)));
+
+        // Monto
+        String amountStr;
+        if (transaction.getType() == Transaction.TransactionType.INCOME) {
+            amountStr = "+" + transaction.getAmount().format();
+        } else {
+            amountStr = "-" + transaction.getAmount().format();
+        }
+        table.addCell(new PdfPCell(new Phrase(amountStr, cellFont)));
+
+        // Descripción o Nota
+        String description = transaction.getNote() != null ? transaction.getNote() :
+                            (transaction.getDescription() != null ? transaction.getDescription() : "");
+        if (description.length() > 50) {
+            description = description.substring(0, 47) + "...";
+        }
+        table.addCell(new PdfPCell(new Phrase(description, cellFont)));
+    }
+
+    private void addTableHeader(PdfPTable table, String headerText) {
+        Font headerFont = new Font(Font.HELVETICA, 10, Font.BOLD);
+        PdfPCell header = new PdfPCell(new Phrase(headerText, headerFont));
+        header.setHorizontalAlignment(Element.ALIGN_CENTER);
+        header.setBackgroundColor(new Color(240, 240, 240));
+        header.setPadding(5);
+        table.addCell(header);
+    }
+}
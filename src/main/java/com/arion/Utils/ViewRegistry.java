@@ -0,0 +1,214 @@
+package com.arion.Utils;
+
+import com.arion.Config.DataExecutor;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Group;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Punto único de carga de las vistas FXML.
+// - Los formularios (controladores ReusableView) se cargan una vez y se reutilizan junto con su
+//   ventana: antes de cada apertura se llama reset(). Si el formulario ya está abierto, se carga
+//   otra copia sin guardarla.
+// - Las demás vistas cargan los datos del usuario al inicializarse, así que se cargan en cada apertura.
+// - preload carga formularios en segundo plano para que la primera apertura no espere al FXML.
+// Los formularios guardados solo se tocan desde el hilo de JavaFX.
+public final class ViewRegistry {
+
+    public static final String LOGIN = "/Fxml/LoginView.fxml";
+    public static final String REGISTER = "/Fxml/RegisterView.fxml";
+    public static final String DASHBOARD = "/Fxml/DashboardView.fxml";
+    public static final String REPORTS = "/Fxml/ReportsView.fxml";
+    public static final String BUDGETS = "/Fxml/BudgetView.fxml";
+    public static final String TRANSACTION_FORM = "/Fxml/TransactionFormView.fxml";
+    public static final String BUDGET_FORM = "/Fxml/BudgetFormView.fxml";
+
+    public static final String DASHBOARD_CSS = "/Css/Dashbord.css";
+    public static final String LOGIN_CSS = "/Css/Login.css";
+    public static final String ALERT_CSS = "/Css/AlertStyles.css";
+
+    // Controlador de un formulario que se puede volver a abrir: reset() lo deja como recién cargado
+    public interface ReusableView {
+        void reset();
+    }
+
+    // Vista cargada: nodo raíz, controlador y (para los formularios) su ventana modal
+    public static final class View<C> {
+        private final Parent root;
+        private final C controller;
+        private Stage stage;
+
+        private View(Parent root, C controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+
+        public Parent root() {
+            return root;
+        }
+
+        public C controller() {
+            return controller;
+        }
+
+        // Ventana modal con la vista; se crea la primera vez y se reutiliza en las siguientes aperturas
+        public Stage dialog(String title) {
+            if (stage == null) {
+                stage = new Stage();
+                stage.initModality(Modality.APPLICATION_MODAL);
+                stage.setScene(new Scene(root));
+            }
+            stage.setTitle(title);
+            return stage;
+        }
+
+        private boolean isShowing() {
+            return stage != null && stage.isShowing();
+        }
+    }
+
+    // Clases que nombra un FXML: sus <?import ...?> y el fx:controller
+    private static final Pattern FXML_CLASSES =
+            Pattern.compile("<\\?import\\s+([\\w.]+)\\s*\\?>|fx:controller=\"([\\w.$]+)\"");
+
+    private static final Map<String, View<?>> FORMS = new HashMap<>();
+    private static final Set<String> PRELOADING = new HashSet<>();
+    private static final Map<String, String> STYLESHEETS = new ConcurrentHashMap<>();
+
+    // Escena que nunca se muestra y mantiene referenciadas las hojas de estilo: JavaFX conserva
+    // una hoja ya analizada mientras alguna escena la use, así que no se vuelve a leer en cada diálogo
+    private static Scene stylesheetHolder;
+
+    private ViewRegistry() {}
+
+    // Carga una vista nueva (para las que no se reutilizan), con su evento JFR de carga de pantalla
+    public static <C> View<C> load(String fxml) throws IOException {
+        ScreenLoadTrace trace = ScreenLoadTrace.begin(screenName(fxml));
+        try {
+            View<C> view = loadView(fxml);
+            trace.loaded(view.root());
+            return view;
+        } catch (IOException | RuntimeException e) {
+            trace.abandon();
+            throw e;
+        }
+    }
+
+    private static <C> View<C> loadView(String fxml) throws IOException {
+        FXMLLoader loader = new FXMLLoader(resource(fxml));
+        Parent root = loader.load();
+        return new View<>(root, loader.getController());
+    }
+
+    // Formulario reutilizable, listo para configurarlo y mostrarlo con dialog()
+    @SuppressWarnings("unchecked")
+    public static <C extends ReusableView> View<C> form(String fxml) throws IOException {
+        View<C> cached = (View<C>) FORMS.get(fxml);
+        if (cached == null) {
+            View<C> loaded = loadView(fxml);
+            FORMS.put(fxml, loaded);
+            return loaded;
+        }
+        if (cached.isShowing()) {
+            return loadView(fxml);
+        }
+        cached.controller().reset();
+        return cached;
+    }
+
+    // Carga en segundo plano los formularios que todavía no están guardados
+    public static void preload(String... fxmls) {
+        for (String fxml : fxmls) {
+            if (FORMS.containsKey(fxml) || !PRELOADING.add(fxml)) {
+                continue;
+            }
+            DataExecutor.supply(() -> {
+                try {
+                    return loadView(fxml);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).whenCompleteAsync((view, error) -> {
+                PRELOADING.remove(fxml);
+                if (error != null) {
+                    // Se volverá a intentar en el hilo de JavaFX al abrir el formulario
+                    System.err.println("No se pudo precargar " + fxml + ": " + error.getMessage());
+                } else if (!FORMS.containsKey(fxml)) {
+                    FORMS.put(fxml, view);
+                }
+            }, DataExecutor.fx());
+        }
+    }
+
+    // Carga e inicializa las clases de controles y el controlador que usa una vista, sin crearla.
+    // Para las vistas que no se pueden cargar por adelantado (cargan datos del usuario al
+    // inicializarse): la primera carga real ya no paga la carga de clases. Se puede llamar desde
+    // cualquier hilo.
+    public static void preloadClasses(String... fxmls) {
+        ClassLoader loader = ViewRegistry.class.getClassLoader();
+        for (String fxml : fxmls) {
+            String text;
+            try (InputStream in = resource(fxml).openStream()) {
+                text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                System.err.println("No se pudo leer " + fxml + ": " + e.getMessage());
+                continue;
+            }
+
+            Matcher matcher = FXML_CLASSES.matcher(text);
+            while (matcher.find()) {
+                String className = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+                try {
+                    Class.forName(className, true, loader);
+                } catch (ClassNotFoundException | LinkageError e) {
+                    // Import de paquete (javafx.scene.control.*) o clase opcional: FXMLLoader la resolverá
+                }
+            }
+        }
+    }
+
+    // URL externa de una hoja de estilos, resuelta una sola vez
+    public static String stylesheet(String path) {
+        return STYLESHEETS.computeIfAbsent(path, p -> resource(p).toExternalForm());
+    }
+
+    // Analiza las hojas de estilo de la aplicación y las mantiene en memoria (llamar en el hilo de JavaFX)
+    public static void retainStylesheets() {
+        if (stylesheetHolder != null) {
+            return;
+        }
+        Group root = new Group();
+        stylesheetHolder = new Scene(root);
+        stylesheetHolder.getStylesheets().addAll(
+                stylesheet(DASHBOARD_CSS), stylesheet(LOGIN_CSS), stylesheet(ALERT_CSS));
+        root.applyCss();
+    }
+
+    // "/Fxml/DashboardView.fxml" -> "DashboardView"
+    private static String screenName(String fxml) {
+        String file = fxml.substring(fxml.lastIndexOf('/') + 1);
+        return file.endsWith(".fxml") ? file.substring(0, file.length() - ".fxml".length()) : file;
+    }
+
+    private static URL resource(String path) {
+        URL url = ViewRegistry.class.getResource(path);
+        if (url == null) {
+            throw new IllegalArgumentException("Recurso no encontrado: " + path);
+        }
+        return url;
+    }
+}
@@ -1,13 +0,0 @@
--- Script para crear tabla de presupuestos en PostgreSQL
-CREATE TABLE IF NOT EXISTS budgets (
-    id SERIAL PRIMARY KEY,
-    user_id INTEGER NOT NULL,
-    category VARCHAR(50) NOT NULL,
-    limit_amount DECIMAL(10,2) NOT NULL,
-    period_year_month VARCHAR(7) NOT NULL, -- Formato: YYYY-MM
-    active BOOLEAN DEFAULT true,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-    CONSTRAINT unique_budget UNIQUE (user_id, category, period_year_month)
-);
-
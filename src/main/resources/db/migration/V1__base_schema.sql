@@ -0,0 +1,33 @@
+-- Esquema base: usuarios, transacciones y presupuestos
+-- (IF NOT EXISTS para bases creadas antes de las migraciones)
+CREATE TABLE IF NOT EXISTS users (
+    id SERIAL PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    description VARCHAR(255),
+    category VARCHAR(100) NOT NULL,
+    date DATE NOT NULL,
+    amount DECIMAL(10,2) NOT NULL,
+    type VARCHAR(10) NOT NULL, -- INCOME o EXPENSE
+    note TEXT,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS budgets (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    limit_amount DECIMAL(10,2) NOT NULL,
+    period_year_month VARCHAR(7) NOT NULL, -- Formato: YYYY-MM (pasa a DATE en V5)
+    active BOOLEAN DEFAULT true,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT unique_budget UNIQUE (user_id, category, period_year_month)
+);
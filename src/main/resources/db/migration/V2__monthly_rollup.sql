@@ -0,0 +1,19 @@
+-- Resumen mensual de transacciones
+-- Se mantiene desde Transaction.save/update/delete en la misma transacción de la base de datos
+CREATE TABLE IF NOT EXISTS transaction_monthly_rollup (
+    user_id INTEGER NOT NULL,
+    year_month DATE NOT NULL, -- Primer día del mes
+    category VARCHAR(100) NOT NULL,
+    type VARCHAR(10) NOT NULL, -- INCOME o EXPENSE
+    total DECIMAL(14,2) NOT NULL DEFAULT 0,
+    tx_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, year_month, category, type),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Carga inicial a partir del historial existente (solo si la tabla está vacía)
+INSERT INTO transaction_monthly_rollup (user_id, year_month, category, type, total, tx_count)
+SELECT user_id, CAST(date_trunc('month', date) AS DATE), category, type, SUM(amount), COUNT(*)
+FROM transactions
+WHERE NOT EXISTS (SELECT 1 FROM transaction_monthly_rollup)
+GROUP BY user_id, date_trunc('month', date), category, type;
@@ -0,0 +1,12 @@
+-- Índices de búsqueda de texto de transacciones
+-- Con 3 o más caracteres el filtro de reportes busca como subcadena (ILIKE '%texto%'),
+-- lo que resuelven los índices de trigramas; con menos busca como prefijo, con los índices text_pattern_ops
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_transactions_description_trgm ON transactions USING gin (description gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_transactions_category_trgm ON transactions USING gin (category gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_transactions_note_trgm ON transactions USING gin (note gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_description_prefix ON transactions (lower(description) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_transactions_category_prefix ON transactions (lower(category) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_transactions_note_prefix ON transactions (lower(note) text_pattern_ops);
@@ -0,0 +1,9 @@
+-- Índices para las consultas frecuentes sobre transactions
+-- Listas por fecha (dashboard, reportes, paginación por cursor y exportación)
+CREATE INDEX IF NOT EXISTS idx_transactions_user_date ON transactions (user_id, date DESC, id DESC);
+
+-- Sumas por tipo, categoría y rango de fechas (resumen mensual, presupuestos):
+-- INCLUDE (amount) permite resolverlas solo con el índice
+CREATE INDEX IF NOT EXISTS idx_transactions_user_type_category_date
+    ON transactions (user_id, type, category, date) INCLUDE (amount);
+
@@ -0,0 +1,8 @@
+-- El periodo de los presupuestos pasa de texto 'YYYY-MM' a DATE (primer día del mes)
+ALTER TABLE budgets
+    ALTER COLUMN period_year_month TYPE DATE
+    USING to_date(period_year_month || '-01', 'YYYY-MM-DD');
+
+-- Presupuestos activos de un usuario por periodo (lista y mes actual)
+CREATE INDEX IF NOT EXISTS idx_budgets_user_period_active
+    ON budgets (user_id, period_year_month DESC) WHERE active;
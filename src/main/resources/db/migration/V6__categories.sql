@@ -0,0 +1,68 @@
+-- Categorías normalizadas: cada usuario tiene su diccionario de categorías y las transacciones,
+-- los presupuestos y el resumen mensual guardan el id. Renombrar una categoría es actualizar una fila.
+CREATE TABLE IF NOT EXISTS categories (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT unique_category UNIQUE (user_id, name)
+);
+
+INSERT INTO categories (user_id, name)
+SELECT user_id, category FROM transactions
+UNION
+SELECT user_id, category FROM budgets
+ON CONFLICT (user_id, name) DO NOTHING;
+
+-- Transacciones (al quitar la columna category se eliminan también sus índices de búsqueda
+-- y el índice por tipo y categoría, que se vuelve a crear sobre category_id)
+ALTER TABLE transactions ADD COLUMN category_id INTEGER;
+
+UPDATE transactions t SET category_id = c.id
+FROM categories c
+WHERE c.user_id = t.user_id AND c.name = t.category;
+
+ALTER TABLE transactions
+    ALTER COLUMN category_id SET NOT NULL,
+    ADD CONSTRAINT fk_transactions_category FOREIGN KEY (category_id) REFERENCES categories(id),
+    DROP COLUMN category;
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_type_category_date
+    ON transactions (user_id, type, category_id, date) INCLUDE (amount);
+
+-- Búsqueda por categoría en reportes (category_id = ANY(...)) y borrado de categorías
+CREATE INDEX IF NOT EXISTS idx_transactions_category ON transactions (category_id);
+
+-- Presupuestos
+ALTER TABLE budgets ADD COLUMN category_id INTEGER;
+
+UPDATE budgets b SET category_id = c.id
+FROM categories c
+WHERE c.user_id = b.user_id AND c.name = b.category;
+
+ALTER TABLE budgets
+    ALTER COLUMN category_id SET NOT NULL,
+    ADD CONSTRAINT fk_budgets_category FOREIGN KEY (category_id) REFERENCES categories(id),
+    DROP COLUMN category;
+
+ALTER TABLE budgets ADD CONSTRAINT unique_budget UNIQUE (user_id, category_id, period_year_month);
+
+-- Resumen mensual: se vuelve a crear con la nueva clave y se recalcula
+DROP TABLE transaction_monthly_rollup;
+
+CREATE TABLE transaction_monthly_rollup (
+    user_id INTEGER NOT NULL,
+    year_month DATE NOT NULL, -- Primer día del mes
+    category_id INTEGER NOT NULL,
+    type VARCHAR(10) NOT NULL, -- INCOME o EXPENSE
+    total DECIMAL(14,2) NOT NULL DEFAULT 0,
+    tx_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, year_month, category_id, type),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES categories(id)
+);
+
+INSERT INTO transaction_monthly_rollup (user_id, year_month, category_id, type, total, tx_count)
+SELECT user_id, CAST(date_trunc('month', date) AS DATE), category_id, type, SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY user_id, date_trunc('month', date), category_id, type;
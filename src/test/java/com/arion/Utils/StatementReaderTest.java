@@ -0,0 +1,47 @@
+package com.arion.Utils;
+
+import com.arion.Model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Montos de extractos: archivos separados por ',' (punto decimal) y por ';' (coma decimal)
+class StatementReaderTest {
+
+    @Test
+    void dotGroupsThousandsInSemicolonFiles() {
+        assertEquals(money("1234"), StatementReader.parseAmount("1.234", true));
+        assertEquals(money("-1234567"), StatementReader.parseAmount("-1.234.567", true));
+    }
+
+    @Test
+    void commaIsDecimalInSemicolonFiles() {
+        assertEquals(money("1234.56"), StatementReader.parseAmount("1.234,56", true));
+        assertEquals(money("-45.10"), StatementReader.parseAmount("-45,10", true));
+    }
+
+    @Test
+    void dotIsDecimalInCommaFiles() {
+        assertEquals(money("1234.56"), StatementReader.parseAmount("$1,234.56", false));
+        assertEquals(money("-45.10"), StatementReader.parseAmount("-45.10", false));
+    }
+
+    @Test
+    void rejectsMoreThanTwoDecimals() {
+        assertThrows(IllegalArgumentException.class, () -> StatementReader.parseAmount("1.234", false));
+        assertThrows(IllegalArgumentException.class, () -> StatementReader.parseAmount("12,3456", true));
+    }
+
+    @Test
+    void rejectsInvalidAmounts() {
+        assertThrows(IllegalArgumentException.class, () -> StatementReader.parseAmount("", false));
+        assertThrows(IllegalArgumentException.class, () -> StatementReader.parseAmount("abc", false));
+    }
+
+    private static Money money(String value) {
+        return Money.of(new BigDecimal(value));
+    }
+}